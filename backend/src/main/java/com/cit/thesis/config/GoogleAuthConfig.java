@@ -0,0 +1,18 @@
+package com.cit.thesis.config;
+
+import com.google.api.client.http.HttpTransport;
+import com.google.api.client.http.javanet.NetHttpTransport;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class GoogleAuthConfig {
+
+    // One transport for the whole app; define another HttpTransport bean to replace it
+    @Bean
+    @ConditionalOnMissingBean
+    public HttpTransport googleHttpTransport() {
+        return new NetHttpTransport();
+    }
+}
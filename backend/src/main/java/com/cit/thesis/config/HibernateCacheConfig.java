@@ -0,0 +1,85 @@
+package com.cit.thesis.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Hibernate second-level cache on JCache, with Caffeine as the provider.
+ *
+ * Every region is created here with its own size and TTL, and Hibernate
+ * refuses to start on an undeclared one, so a new cached entity needs an
+ * entry below. Entity regions are READ_WRITE: Hibernate replaces or
+ * removes an entry when the entity is saved or deleted through JPA (the
+ * admin approve, deactivate and delete flows included), but clears the
+ * whole region after a bulk JPQL update of its table, so cached entities
+ * are only ever changed through the entity.
+ *
+ * The query cache is used for user lookups only. Schedules are not
+ * cached at all: bookings claim and release slots with bulk updates, and
+ * the bulk schedule inserts go through JDBC, which Hibernate never sees.
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    public static final String USERS_REGION = "users";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(
+            @Value("${app.cache.hibernate.users.max-size:10000}") long usersMaxSize,
+            @Value("${app.cache.hibernate.users.ttl:PT10M}") Duration usersTtl,
+            @Value("${app.cache.hibernate.queries.max-size:1000}") long queriesMaxSize,
+            @Value("${app.cache.hibernate.queries.ttl:PT5M}") Duration queriesTtl) {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        // The provider hands out one manager per URI; each application context gets its own
+        CacheManager cacheManager = provider.getCacheManager(URI.create("hibernate-" + UUID.randomUUID()),
+                getClass().getClassLoader());
+
+        createRegion(cacheManager, USERS_REGION, usersMaxSize, usersTtl);
+        createRegion(cacheManager, RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+                queriesMaxSize, queriesTtl);
+        // One entry per table; it must outlive every cached query result, so it is unbounded
+        createRegion(cacheManager, RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, 0, null);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    // A max size of 0 or a null TTL leaves that bound off
+    private static void createRegion(CacheManager cacheManager, String name, long maxSize, Duration ttl) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        // Hibernate caches disassembled state, so entries need not be copied
+        configuration.setStoreByValue(false);
+        configuration.setStatisticsEnabled(true);
+        if (maxSize > 0) {
+            configuration.setMaximumSize(OptionalLong.of(maxSize));
+        }
+        if (ttl != null) {
+            configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        }
+        cacheManager.createCache(name, configuration);
+    }
+}
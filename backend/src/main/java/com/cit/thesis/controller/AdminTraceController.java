@@ -0,0 +1,28 @@
+package com.cit.thesis.controller;
+
+import com.cit.thesis.tracing.SlowRequestLog;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/traces")
+@CrossOrigin(origins = "${app.cors.allowed-origins}")
+public class AdminTraceController {
+
+    private final SlowRequestLog slowRequestLog;
+
+    public AdminTraceController(SlowRequestLog slowRequestLog) {
+        this.slowRequestLog = slowRequestLog;
+    }
+
+    // Admin: recent requests over the slow threshold, slowest first
+    @GetMapping("/slow")
+    public ResponseEntity<List<SlowRequestLog.Entry>> getSlowRequests() {
+        return ResponseEntity.ok(slowRequestLog.snapshot());
+    }
+}
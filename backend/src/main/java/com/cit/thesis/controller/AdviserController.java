@@ -0,0 +1,43 @@
+package com.cit.thesis.controller;
+
+import com.cit.thesis.dto.AdviserDashboardDto;
+import com.cit.thesis.service.AdviserDashboardService;
+import com.cit.thesis.service.ContentVersions;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+@RestController
+@RequestMapping("/api/advisers")
+@CrossOrigin(origins = "${app.cors.allowed-origins}")
+public class AdviserController {
+
+    private final AdviserDashboardService adviserDashboardService;
+    private final ContentVersions contentVersions;
+
+    public AdviserController(AdviserDashboardService adviserDashboardService, ContentVersions contentVersions) {
+        this.adviserDashboardService = adviserDashboardService;
+        this.contentVersions = contentVersions;
+    }
+
+    // Pending count, today's and this week's consultations and open-slot figures in one call
+    @GetMapping("/me/dashboard")
+    public ResponseEntity<AdviserDashboardDto> getMyDashboard(
+            Authentication authentication,
+            @RequestParam(defaultValue = "5") int slots,
+            WebRequest webRequest) {
+        String email = authentication.getName();
+        String etag = contentVersions.userTag(email);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+
+        AdviserDashboardDto dashboard = adviserDashboardService.getDashboard(email, Math.max(0, Math.min(slots, 20)));
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .eTag(etag)
+                .body(dashboard);
+    }
+}
@@ -2,9 +2,17 @@ package com.cit.thesis.controller;
 
 import com.cit.thesis.dto.*;
 import com.cit.thesis.service.AuthService;
-import com.cit.thesis.security.JwtUtil;
+import com.cit.thesis.service.InvalidRefreshTokenException;
+import com.cit.thesis.security.JwtAuthenticationFilter;
+import com.cit.thesis.security.LoginRateLimiter;
+import com.cit.thesis.security.PasswordHashingBusyException;
+import io.jsonwebtoken.Claims;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -13,11 +21,11 @@ import org.springframework.web.bind.annotation.*;
 public class AuthController {
 
     private final AuthService authService;
-    private final JwtUtil jwtUtil;
+    private final LoginRateLimiter loginRateLimiter;
 
-    public AuthController(AuthService authService, JwtUtil jwtUtil) {
+    public AuthController(AuthService authService, LoginRateLimiter loginRateLimiter) {
         this.authService = authService;
-        this.jwtUtil = jwtUtil;
+        this.loginRateLimiter = loginRateLimiter;
     }
 
     /**
@@ -39,10 +47,14 @@ public class AuthController {
     @PostMapping("/complete-profile")
     public ResponseEntity<?> completeProfile(
             @Valid @RequestBody CompleteProfileRequest request,
-            @RequestHeader("Authorization") String authHeader) {
+            Authentication authentication) {
+        // Verified (and checked against revocations) by the JWT filter
+        Claims claims = JwtAuthenticationFilter.verifiedClaims(authentication);
+        if (claims == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Not signed in");
+        }
         try {
-            String token = authHeader.replace("Bearer ", "");
-            String email = jwtUtil.extractUsername(token);
+            String email = claims.getSubject();
 
             AuthResponse response = authService.completeProfile(request, email);
             return ResponseEntity.ok(response);
@@ -52,25 +64,74 @@ public class AuthController {
     }
 
     @PostMapping("/register")
-    public ResponseEntity<?> register(@Valid @RequestBody RegisterRequest request) {
+    public ResponseEntity<?> register(@Valid @RequestBody RegisterRequest request,
+            HttpServletRequest httpRequest) {
+        long retryAfter = loginRateLimiter.acquire(httpRequest.getRemoteAddr(), request.getEmail());
+        if (retryAfter > 0) {
+            return tooManyRequests(retryAfter);
+        }
+
         try {
             AuthResponse response = authService.register(request);
             return ResponseEntity.ok(response);
+        } catch (PasswordHashingBusyException e) {
+            return tooManyRequests(e.getRetryAfterSeconds());
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
 
     @PostMapping("/login")
-    public ResponseEntity<?> login(@Valid @RequestBody LoginRequest request) {
+    public ResponseEntity<?> login(@Valid @RequestBody LoginRequest request,
+            HttpServletRequest httpRequest) {
+        long retryAfter = loginRateLimiter.acquire(httpRequest.getRemoteAddr(), request.getEmail());
+        if (retryAfter > 0) {
+            return tooManyRequests(retryAfter);
+        }
+
         try {
             AuthResponse response = authService.loginWithEmail(request);
             return ResponseEntity.ok(response);
+        } catch (PasswordHashingBusyException e) {
+            return tooManyRequests(e.getRetryAfterSeconds());
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * New access token (and the next refresh token) for a refresh token
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@RequestBody RefreshTokenRequest request) {
+        try {
+            AuthResponse response = authService.refresh(request.getRefreshToken());
+            return ResponseEntity.ok(response);
+        } catch (InvalidRefreshTokenException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
 
+    /**
+     * Revokes the bearer token and the session's refresh tokens
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(
+            @RequestBody(required = false) RefreshTokenRequest request,
+            Authentication authentication) {
+        authService.logout(JwtAuthenticationFilter.verifiedClaims(authentication),
+                request != null ? request.getRefreshToken() : null);
+        return ResponseEntity.noContent().build();
+    }
+
+    private static ResponseEntity<String> tooManyRequests(long retryAfterSeconds) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds))
+                .body("Too many attempts. Please try again in " + retryAfterSeconds + " seconds.");
+    }
+
     @GetMapping("/test")
     public ResponseEntity<String> test() {
         return ResponseEntity.ok("Backend is working!");
@@ -3,54 +3,91 @@ package com.cit.thesis.controller;
 import com.cit.thesis.dto.AddNotesRequest;
 import com.cit.thesis.dto.BookConsultationRequest;
 import com.cit.thesis.dto.ConsultationDto;
+import com.cit.thesis.dto.FieldSelection;
 import com.cit.thesis.dto.RejectConsultationRequest;
 import com.cit.thesis.service.ConsultationService;
+import com.cit.thesis.service.ContentVersions;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/consultations")
 public class ConsultationController {
 
     private final ConsultationService consultationService;
+    private final ContentVersions contentVersions;
 
-    public ConsultationController(ConsultationService consultationService) {
+    public ConsultationController(ConsultationService consultationService, ContentVersions contentVersions) {
         this.consultationService = consultationService;
+        this.contentVersions = contentVersions;
     }
 
     @GetMapping("/my-consultations")
     public ResponseEntity<?> getMyConsultations(
             Authentication authentication,
-            @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
-        String email = authentication.getName();
-        return ResponseEntity.ok(consultationService.getMyConsultations(email, page, size));
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal,
+            @RequestParam(required = false) String fields) {
+        try {
+            String email = authentication.getName();
+            FieldSelection selection = FieldSelection.parse(fields);
+            return ResponseEntity.ok(selection.apply(consultationService.getMyConsultations(
+                    email, cursor, Math.max(1, Math.min(size, 100)), includeTotal, selection)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
     }
 
     @GetMapping("/upcoming")
-    public ResponseEntity<List<ConsultationDto>> getUpcomingConsultations(Authentication authentication) {
+    public ResponseEntity<?> getUpcomingConsultations(Authentication authentication,
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest) {
         String email = authentication.getName();
-        List<ConsultationDto> consultations = consultationService.getUpcomingConsultations(email);
-        return ResponseEntity.ok(consultations);
+        // 304 without touching the database while nothing of this user's changed
+        String etag = contentVersions.userTag(email);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+
+        FieldSelection selection = FieldSelection.parse(fields);
+        List<ConsultationDto> consultations = consultationService.getUpcomingConsultations(email, selection);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .eTag(etag)
+                .body(selection.apply(consultations));
     }
 
     @GetMapping("/past")
-    public ResponseEntity<List<ConsultationDto>> getPastConsultations(Authentication authentication) {
+    public ResponseEntity<?> getPastConsultations(Authentication authentication,
+            @RequestParam(required = false) String fields) {
         String email = authentication.getName();
-        List<ConsultationDto> consultations = consultationService.getPastConsultations(email);
-        return ResponseEntity.ok(consultations);
+        FieldSelection selection = FieldSelection.parse(fields);
+        List<ConsultationDto> consultations = consultationService.getPastConsultations(email, selection);
+        return ResponseEntity.ok(selection.apply(consultations));
     }
 
     @PostMapping("/book")
-    public ResponseEntity<ConsultationDto> bookConsultation(
+    public ResponseEntity<?> bookConsultation(
             @RequestBody BookConsultationRequest request,
             Authentication authentication) {
-        String email = authentication.getName();
-        ConsultationDto consultation = consultationService.bookConsultation(request, email);
-        return ResponseEntity.ok(consultation);
+        try {
+            String email = authentication.getName();
+            ConsultationDto consultation = consultationService.bookConsultation(request, email);
+            return ResponseEntity.ok(consultation);
+        } catch (IllegalStateException e) {
+            // Slot already taken by another student
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
     }
 
     @DeleteMapping("/{id}")
@@ -73,10 +110,33 @@ public class ConsultationController {
 
     // Get pending consultations for faculty adviser
     @GetMapping("/pending")
-    public ResponseEntity<List<ConsultationDto>> getPendingConsultations(Authentication authentication) {
+    public ResponseEntity<?> getPendingConsultations(Authentication authentication,
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest) {
         String email = authentication.getName();
-        List<ConsultationDto> consultations = consultationService.getPendingConsultationsForAdviser(email);
-        return ResponseEntity.ok(consultations);
+        String etag = contentVersions.userTag(email);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+
+        FieldSelection selection = FieldSelection.parse(fields);
+        List<ConsultationDto> consultations = consultationService.getPendingConsultationsForAdviser(email, selection);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .eTag(etag)
+                .body(selection.apply(consultations));
+    }
+
+    @GetMapping("/pending/paged")
+    public ResponseEntity<?> getPendingConsultationsPaged(
+            Authentication authentication,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String fields) {
+        String email = authentication.getName();
+        FieldSelection selection = FieldSelection.parse(fields);
+        return ResponseEntity.ok(selection.apply(consultationService.getPendingConsultationsForAdviser(
+                email, Math.max(0, page), Math.max(1, Math.min(size, 100)), selection)));
     }
 
     // Approve consultation
@@ -130,11 +190,13 @@ public class ConsultationController {
     }
 
     @GetMapping("/adviser/consultations")
-    public ResponseEntity<List<ConsultationDto>> getConsultationsForAdviser(
-            Authentication authentication) {
+    public ResponseEntity<?> getConsultationsForAdviser(
+            Authentication authentication,
+            @RequestParam(required = false) String fields) {
         String email = authentication.getName();
-        List<ConsultationDto> consultations = consultationService.getConsultationsForAdviser(email);
-        return ResponseEntity.ok(consultations);
+        FieldSelection selection = FieldSelection.parse(fields);
+        List<ConsultationDto> consultations = consultationService.getConsultationsForAdviser(email, selection);
+        return ResponseEntity.ok(selection.apply(consultations));
     }
 
 }
\ No newline at end of file
@@ -1,46 +1,148 @@
 package com.cit.thesis.controller;
 
+import com.cit.thesis.dto.BulkScheduleResponse;
 import com.cit.thesis.dto.CreateScheduleRequest;
+import com.cit.thesis.dto.FieldSelection;
+import com.cit.thesis.dto.FreeWindow;
+import com.cit.thesis.dto.RecurringScheduleRequest;
 import com.cit.thesis.dto.ScheduleDto;
+import com.cit.thesis.service.AvailabilityFeed;
+import com.cit.thesis.service.ContentVersions;
 import com.cit.thesis.service.ScheduleService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/schedules")
 public class ScheduleController {
 
     private final ScheduleService scheduleService;
+    private final AvailabilityFeed availabilityFeed;
+    private final ContentVersions contentVersions;
 
-    public ScheduleController(ScheduleService scheduleService) {
+    public ScheduleController(ScheduleService scheduleService, AvailabilityFeed availabilityFeed,
+            ContentVersions contentVersions) {
         this.scheduleService = scheduleService;
+        this.availabilityFeed = availabilityFeed;
+        this.contentVersions = contentVersions;
     }
 
+    // Polled endpoints answer If-None-Match with 304 before loading anything;
+    // returning null tells MVC the 304 set by checkNotModified is the response
     @GetMapping("/available")
-    public ResponseEntity<List<ScheduleDto>> getAvailableSchedules() {
+    public ResponseEntity<?> getAvailableSchedules(
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest) {
+        String etag = contentVersions.availabilityTag();
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+
         List<ScheduleDto> schedules = scheduleService.getAvailableSchedules();
-        return ResponseEntity.ok(schedules);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .eTag(etag)
+                .body(FieldSelection.parse(fields).apply(schedules));
+    }
+
+    // Server-sent slot-created/booked/released/deleted events; replaces polling /available.
+    // Reconnecting clients send Last-Event-ID and get what they missed (or a "reset" event).
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamAvailability(
+            @RequestParam(required = false) Long adviserId,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        try {
+            return ResponseEntity.ok()
+                    .header("X-Accel-Buffering", "no")
+                    .body(availabilityFeed.subscribe(adviserId, lastEventId));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
     }
 
     @GetMapping("/my-schedules")
     public ResponseEntity<?> getMySchedules(
             Authentication authentication,
-            @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size) {
-        String email = authentication.getName();
-        return ResponseEntity.ok(scheduleService.getMySchedules(email, page, size));
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal,
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest) {
+        try {
+            String email = authentication.getName();
+            String etag = contentVersions.userTag(email);
+            if (webRequest.checkNotModified(etag)) {
+                return null;
+            }
+
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.noCache().cachePrivate())
+                    .eTag(etag)
+                    .body(FieldSelection.parse(fields).apply(scheduleService.getMySchedules(
+                            email, cursor, Math.max(1, Math.min(size, 100)), includeTotal)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    // Unscheduled stretches of the caller's day, e.g. to see where new slots still fit
+    @GetMapping("/free-time")
+    public ResponseEntity<?> getFreeTime(
+            Authentication authentication,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(defaultValue = "00:00") @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime to,
+            @RequestParam(defaultValue = "5") int minMinutes) {
+        try {
+            String email = authentication.getName();
+            List<FreeWindow> windows = scheduleService.getFreeWindows(
+                    email, date, from, to != null ? to : LocalTime.MAX, minMinutes);
+            return ResponseEntity.ok(windows);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
     }
 
     @PostMapping
-    public ResponseEntity<ScheduleDto> createSchedule(
+    public ResponseEntity<?> createSchedule(
             @RequestBody CreateScheduleRequest request,
             Authentication authentication) {
-        String email = authentication.getName();
-        ScheduleDto schedule = scheduleService.createSchedule(request, email);
-        return ResponseEntity.ok(schedule);
+        try {
+            String email = authentication.getName();
+            ScheduleDto schedule = scheduleService.createSchedule(request, email);
+            return ResponseEntity.ok(schedule);
+        } catch (IllegalStateException e) {
+            // Overlapping slot; the adviser dashboard shows the body as the error text
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // Expands a weekly pattern into slots; overlapping ones are skipped and listed as conflicts
+    @PostMapping("/recurring")
+    public ResponseEntity<?> createRecurringSchedules(
+            @RequestBody RecurringScheduleRequest request,
+            Authentication authentication) {
+        try {
+            String email = authentication.getName();
+            BulkScheduleResponse response = scheduleService.createRecurringSchedules(request, email);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
     }
 
     @DeleteMapping("/{id}")
@@ -2,9 +2,9 @@ package com.cit.thesis.controller;
 
 import com.cit.thesis.dto.UpdateProfileRequest;
 import com.cit.thesis.dto.UserDto;
-import com.cit.thesis.security.JwtUtil;
 import com.cit.thesis.service.UserService;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -14,18 +14,15 @@ import org.springframework.web.multipart.MultipartFile;
 public class UserController {
 
     private final UserService userService;
-    private final JwtUtil jwtUtil;
 
-    public UserController(UserService userService, JwtUtil jwtUtil) {
+    public UserController(UserService userService) {
         this.userService = userService;
-        this.jwtUtil = jwtUtil;
     }
 
     @GetMapping("/profile")
-    public ResponseEntity<?> getProfile(@RequestHeader("Authorization") String authHeader) {
+    public ResponseEntity<?> getProfile(Authentication authentication) {
         try {
-            String token = authHeader.replace("Bearer ", "");
-            String email = jwtUtil.extractUsername(token);
+            String email = authentication.getName();
 
             UserDto profile = userService.getUserProfile(email);
             return ResponseEntity.ok(profile);
@@ -36,11 +33,10 @@ public class UserController {
 
     @PutMapping("/profile")
     public ResponseEntity<?> updateProfile(
-            @RequestHeader("Authorization") String authHeader,
+            Authentication authentication,
             @RequestBody UpdateProfileRequest request) {
         try {
-            String token = authHeader.replace("Bearer ", "");
-            String email = jwtUtil.extractUsername(token);
+            String email = authentication.getName();
 
             UserDto updatedProfile = userService.updateProfile(email, request);
             return ResponseEntity.ok(updatedProfile);
@@ -51,11 +47,17 @@ public class UserController {
 
     @PostMapping("/profile/upload-image")
     public ResponseEntity<?> uploadProfileImage(
-            @RequestHeader("Authorization") String authHeader,
-            @RequestParam("file") MultipartFile file) {
+            Authentication authentication,
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(defaultValue = "false") boolean async) {
         try {
-            String token = authHeader.replace("Bearer ", "");
-            String email = jwtUtil.extractUsername(token);
+            String email = authentication.getName();
+
+            // Async: 202 with the current profile; pictureUrl changes once the upload completes
+            if (async) {
+                UserDto currentProfile = userService.uploadProfileImageAsync(file, email);
+                return ResponseEntity.accepted().body(currentProfile);
+            }
 
             UserDto updatedProfile = userService.uploadProfileImage(file, email);
             return ResponseEntity.ok(updatedProfile);
@@ -66,10 +68,9 @@ public class UserController {
 
     // Student/Faculty: Deactivate own account
     @PutMapping("/deactivate")
-    public ResponseEntity<?> deactivateMyAccount(@RequestHeader("Authorization") String authHeader) {
+    public ResponseEntity<?> deactivateMyAccount(Authentication authentication) {
         try {
-            String token = authHeader.replace("Bearer ", "");
-            String email = jwtUtil.extractUsername(token);
+            String email = authentication.getName();
 
             userService.deactivateMyAccount(email);
             return ResponseEntity.ok("Account deactivated successfully");
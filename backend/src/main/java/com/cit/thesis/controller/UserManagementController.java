@@ -1,5 +1,6 @@
 package com.cit.thesis.controller;
 
+import com.cit.thesis.dto.FieldSelection;
 import com.cit.thesis.dto.UserDto;
 import com.cit.thesis.service.UserManagementService;
 import org.springframework.http.ResponseEntity;
@@ -22,19 +23,21 @@ public class UserManagementController {
     @GetMapping
     public ResponseEntity<?> getAllUsers(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size) {
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String fields) {
         try {
-            return ResponseEntity.ok(userManagementService.getAllUsers(page, size));
+            // fields= only trims the JSON; user rows have no large columns worth skipping
+            return ResponseEntity.ok(FieldSelection.parse(fields).apply(userManagementService.getAllUsers(page, size)));
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
     }
 
     @GetMapping("/pending")
-    public ResponseEntity<List<UserDto>> getPendingUsers() {
+    public ResponseEntity<?> getPendingUsers(@RequestParam(required = false) String fields) {
         try {
             List<UserDto> pendingUsers = userManagementService.getPendingUsers();
-            return ResponseEntity.ok(pendingUsers);
+            return ResponseEntity.ok(FieldSelection.parse(fields).apply(pendingUsers));
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
@@ -75,6 +78,11 @@ public class UserManagementController {
         }
     }
 
+    @GetMapping("/cache-stats")
+    public ResponseEntity<Map<String, Object>> getUserCacheStats() {
+        return ResponseEntity.ok(userManagementService.getUserCacheStats());
+    }
+
     @DeleteMapping("/{userId}")
     public ResponseEntity<?> deleteUser(@PathVariable Long userId) {
         try {
@@ -86,8 +94,8 @@ public class UserManagementController {
     }
 
     @GetMapping("/archived")
-    public List<UserDto> getArchivedUsers() {
-        return userManagementService.getArchivedUsers();
+    public Object getArchivedUsers(@RequestParam(required = false) String fields) {
+        return FieldSelection.parse(fields).apply(userManagementService.getArchivedUsers());
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,72 @@
+package com.cit.thesis.datasource;
+
+import com.cit.thesis.transaction.AfterCommit;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Users whose reads must skip the read replica for a short while because
+ * it may not have replayed a recent change yet.
+ *
+ * A user is tracked for {@link #window()} after one of their own write
+ * transactions commits, and after a commit that changes what their lists
+ * show (see {@link com.cit.thesis.service.ContentVersions}), so a polled
+ * list never pairs a new ETag with a stale body. Users are identified by
+ * the authenticated principal's name, which is their email.
+ *
+ * Without a replica configured nothing is tracked and the window is zero.
+ */
+@Component
+public class ReadYourWrites {
+
+    private static final long MAX_TRACKED_USERS = 100_000;
+
+    private final Duration window;
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadYourWrites(@Value("${app.datasource.replica.url:}") String replicaUrl,
+            @Value("${app.datasource.replica.read-your-writes:PT5S}") Duration window) {
+        this.window = replicaUrl.isBlank() ? Duration.ZERO : window;
+        this.recentWriters = Caffeine.newBuilder()
+                .maximumSize(MAX_TRACKED_USERS)
+                .expireAfterWrite(this.window)
+                .build();
+    }
+
+    public Duration window() {
+        return window;
+    }
+
+    // Tracks the current user once the surrounding transaction commits
+    public void currentUserWrites() {
+        userWrites(currentUser());
+    }
+
+    public void userWrites(String email) {
+        if (email == null || window.isZero()) {
+            return;
+        }
+        AfterCommit.run(() -> recentWriters.put(email, Boolean.TRUE));
+    }
+
+    public boolean currentUserWroteRecently() {
+        String email = currentUser();
+        return email != null && recentWriters.getIfPresent(email) != null;
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken
+                || !authentication.isAuthenticated()) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
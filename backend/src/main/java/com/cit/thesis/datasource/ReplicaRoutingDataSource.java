@@ -0,0 +1,70 @@
+package com.cit.thesis.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Hands out replica connections to read-only transactions and primary
+ * connections to everything else, including reads of users in their
+ * {@link ReadYourWrites} window.
+ *
+ * Must sit behind a LazyConnectionDataSourceProxy: Spring marks a
+ * transaction read-only only after it has begun, so the target has to be
+ * chosen when the first statement runs rather than when the transaction
+ * asks for its connection.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private enum Target {
+        PRIMARY,
+        REPLICA
+    }
+
+    private final ReadYourWrites readYourWrites;
+    private final Counter primaryRoutes;
+    private final Counter replicaRoutes;
+    private final Counter fallbackRoutes;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReadYourWrites readYourWrites,
+            MeterRegistry meterRegistry) {
+        this.readYourWrites = readYourWrites;
+        this.primaryRoutes = routes(meterRegistry, "primary", "write");
+        this.replicaRoutes = routes(meterRegistry, "replica", "read");
+        this.fallbackRoutes = routes(meterRegistry, "primary", "read-your-writes");
+
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                readYourWrites.currentUserWrites();
+            }
+            primaryRoutes.increment();
+            return Target.PRIMARY;
+        }
+
+        if (readYourWrites.currentUserWroteRecently()) {
+            fallbackRoutes.increment();
+            return Target.PRIMARY;
+        }
+        replicaRoutes.increment();
+        return Target.REPLICA;
+    }
+
+    private static Counter routes(MeterRegistry meterRegistry, String target, String reason) {
+        return Counter.builder("app.datasource.routes")
+                .description("Connections handed out by the read/write routing data source")
+                .tag("target", target)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,20 @@
+package com.cit.thesis.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Everything the adviser dashboard shows, in one response. The week runs
+ * Monday to Sunday; slot counts only include slots from today on.
+ */
+public record AdviserDashboardDto(
+        long pendingCount,
+        LocalDate weekStart,
+        LocalDate weekEnd,
+        List<ConsultationDto> today,
+        List<ConsultationDto> thisWeek,
+        int openSlotsToday,
+        int openSlotsThisWeek,
+        int openSlotsTotal,
+        List<ScheduleDto> nextSlots) {
+}
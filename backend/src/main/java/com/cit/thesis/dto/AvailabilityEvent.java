@@ -0,0 +1,18 @@
+package com.cit.thesis.dto;
+
+/**
+ * Payload of one availability feed event. {@code slot} is only set for
+ * events that make a slot bookable (created, released).
+ */
+public record AvailabilityEvent(String type, Long scheduleId, Long adviserId, ScheduleDto slot) {
+
+    public static final String SLOT_CREATED = "slot-created";
+    // Bulk creation; carries only the adviser, whose slots should be reloaded
+    public static final String SLOTS_CREATED = "slots-created";
+    public static final String SLOT_BOOKED = "slot-booked";
+    public static final String SLOT_RELEASED = "slot-released";
+    public static final String SLOT_DELETED = "slot-deleted";
+
+    // Sent instead of a replay when the client's Last-Event-ID can't be resumed
+    public static final String RESET = "reset";
+}
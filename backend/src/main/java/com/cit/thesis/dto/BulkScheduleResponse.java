@@ -0,0 +1,45 @@
+package com.cit.thesis.dto;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * Outcome of a bulk schedule request. Generated slots that overlap an
+ * existing slot (or an earlier slot of the same request) are skipped and
+ * reported in {@code conflicts}; everything else is in {@code created}.
+ */
+public class BulkScheduleResponse {
+    private List<ScheduleDto> created;
+    private List<Conflict> conflicts;
+
+    public BulkScheduleResponse() {
+    }
+
+    public BulkScheduleResponse(List<ScheduleDto> created, List<Conflict> conflicts) {
+        this.created = created;
+        this.conflicts = conflicts;
+    }
+
+    public List<ScheduleDto> getCreated() {
+        return created;
+    }
+
+    public void setCreated(List<ScheduleDto> created) {
+        this.created = created;
+    }
+
+    public List<Conflict> getConflicts() {
+        return conflicts;
+    }
+
+    public void setConflicts(List<Conflict> conflicts) {
+        this.conflicts = conflicts;
+    }
+
+    // conflictingScheduleId is null when the clash is with a slot not yet committed:
+    // an earlier slot of the same request, or one another request is creating
+    public record Conflict(LocalDate availableDate, LocalTime startTime, LocalTime endTime,
+            Long conflictingScheduleId) {
+    }
+}
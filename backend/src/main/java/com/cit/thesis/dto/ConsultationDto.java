@@ -1,8 +1,11 @@
 package com.cit.thesis.dto;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
+
 import java.time.LocalDate;
 import java.time.LocalTime;
 
+@JsonFilter(FieldSelection.FILTER)
 public class ConsultationDto {
     private Long id;
     private Long studentId;
@@ -12,6 +15,8 @@ public class ConsultationDto {
     private Long adviserId;
     private String adviserName;
     private String adviserPictureUrl;
+    private String studentThumbnailUrl;
+    private String adviserThumbnailUrl;
     private String topic;
     private String description;
     private LocalDate scheduledDate;
@@ -172,4 +177,20 @@ public class ConsultationDto {
     public void setAdviserPictureUrl(String adviserPictureUrl) {
         this.adviserPictureUrl = adviserPictureUrl;
     }
+
+    public String getStudentThumbnailUrl() {
+        return studentThumbnailUrl;
+    }
+
+    public void setStudentThumbnailUrl(String studentThumbnailUrl) {
+        this.studentThumbnailUrl = studentThumbnailUrl;
+    }
+
+    public String getAdviserThumbnailUrl() {
+        return adviserThumbnailUrl;
+    }
+
+    public void setAdviserThumbnailUrl(String adviserThumbnailUrl) {
+        this.adviserThumbnailUrl = adviserThumbnailUrl;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,66 @@
+package com.cit.thesis.dto;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.http.converter.json.MappingJacksonValue;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Parsed {@code fields=} query parameter: a comma-separated list of the
+ * DTO properties a list endpoint should return. {@code id} is always
+ * included; an absent or blank parameter means every property.
+ *
+ * DTOs opt in with {@code @JsonFilter(FieldSelection.FILTER)}; services may
+ * also use {@link #includesAny} to skip loading columns nobody asked for.
+ */
+public final class FieldSelection {
+
+    public static final String FILTER = "fields";
+
+    public static final FieldSelection ALL = new FieldSelection(null);
+
+    // Null when every field is selected
+    private final Set<String> fields;
+
+    private FieldSelection(Set<String> fields) {
+        this.fields = fields;
+    }
+
+    public static FieldSelection parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+
+        Set<String> names = Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        names.add("id");
+        return new FieldSelection(names);
+    }
+
+    public boolean isAll() {
+        return fields == null;
+    }
+
+    public boolean includesAny(Collection<String> names) {
+        return fields == null || names.stream().anyMatch(fields::contains);
+    }
+
+    // Wraps a response body so Jackson writes only the selected properties of filtered DTOs
+    public Object apply(Object body) {
+        if (fields == null) {
+            return body;
+        }
+
+        MappingJacksonValue value = new MappingJacksonValue(body);
+        value.setFilters(new SimpleFilterProvider()
+                .addFilter(FILTER, SimpleBeanPropertyFilter.filterOutAllExcept(fields)));
+        return value;
+    }
+}
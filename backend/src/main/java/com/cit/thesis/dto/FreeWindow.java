@@ -0,0 +1,7 @@
+package com.cit.thesis.dto;
+
+import java.time.LocalTime;
+
+// An unoccupied stretch of an adviser's day; an end of 23:59:59.999999999 means midnight
+public record FreeWindow(LocalTime startTime, LocalTime endTime) {
+}
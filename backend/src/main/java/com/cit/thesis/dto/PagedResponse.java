@@ -5,11 +5,12 @@ import java.util.List;
 public class PagedResponse<T> {
     private List<T> content;
     private int currentPage;
-    private int totalPages;
-    private long totalElements;
+    private Integer totalPages;
+    private Long totalElements;
     private int pageSize;
     private boolean first;
     private boolean last;
+    private String nextCursor;
 
     public PagedResponse() {
     }
@@ -25,6 +26,23 @@ public class PagedResponse<T> {
         this.last = last;
     }
 
+    /**
+     * Cursor-based page. The totals are only filled in when the caller asked
+     * for a count, otherwise they are null.
+     */
+    public PagedResponse(List<T> content, int pageSize, boolean first, String nextCursor,
+            Long totalElements) {
+        this.content = content;
+        this.pageSize = pageSize;
+        this.first = first;
+        this.last = nextCursor == null;
+        this.nextCursor = nextCursor;
+        this.totalElements = totalElements;
+        if (totalElements != null) {
+            this.totalPages = pageSize > 0 ? (int) ((totalElements + pageSize - 1) / pageSize) : 0;
+        }
+    }
+
     // Getters and Setters
     public List<T> getContent() {
         return content;
@@ -42,19 +60,19 @@ public class PagedResponse<T> {
         this.currentPage = currentPage;
     }
 
-    public int getTotalPages() {
+    public Integer getTotalPages() {
         return totalPages;
     }
 
-    public void setTotalPages(int totalPages) {
+    public void setTotalPages(Integer totalPages) {
         this.totalPages = totalPages;
     }
 
-    public long getTotalElements() {
+    public Long getTotalElements() {
         return totalElements;
     }
 
-    public void setTotalElements(long totalElements) {
+    public void setTotalElements(Long totalElements) {
         this.totalElements = totalElements;
     }
 
@@ -81,4 +99,12 @@ public class PagedResponse<T> {
     public void setLast(boolean last) {
         this.last = last;
     }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,88 @@
+package com.cit.thesis.dto;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Recurrence pattern for bulk slot creation: every listed weekday between
+ * startDate and endDate (inclusive), each time window is cut into
+ * consecutive slots of slotMinutes. A leftover shorter than one slot at
+ * the end of a window is not used.
+ */
+public class RecurringScheduleRequest {
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private Set<DayOfWeek> daysOfWeek;
+    private List<TimeWindow> windows;
+    private Integer slotMinutes;
+
+    public RecurringScheduleRequest() {
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+
+    public Set<DayOfWeek> getDaysOfWeek() {
+        return daysOfWeek;
+    }
+
+    public void setDaysOfWeek(Set<DayOfWeek> daysOfWeek) {
+        this.daysOfWeek = daysOfWeek;
+    }
+
+    public List<TimeWindow> getWindows() {
+        return windows;
+    }
+
+    public void setWindows(List<TimeWindow> windows) {
+        this.windows = windows;
+    }
+
+    public Integer getSlotMinutes() {
+        return slotMinutes;
+    }
+
+    public void setSlotMinutes(Integer slotMinutes) {
+        this.slotMinutes = slotMinutes;
+    }
+
+    public static class TimeWindow {
+        private LocalTime startTime;
+        private LocalTime endTime;
+
+        public TimeWindow() {
+        }
+
+        public LocalTime getStartTime() {
+            return startTime;
+        }
+
+        public void setStartTime(LocalTime startTime) {
+            this.startTime = startTime;
+        }
+
+        public LocalTime getEndTime() {
+            return endTime;
+        }
+
+        public void setEndTime(LocalTime endTime) {
+            this.endTime = endTime;
+        }
+    }
+}
@@ -1,8 +1,11 @@
 package com.cit.thesis.dto;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
+
 import java.time.LocalDate;
 import java.time.LocalTime;
 
+@JsonFilter(FieldSelection.FILTER)
 public class ScheduleDto {
     private Long id;
     private Long adviserId;
@@ -1,5 +1,8 @@
 package com.cit.thesis.dto;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
+
+@JsonFilter(FieldSelection.FILTER)
 public class UserDto {
     private Long id;
     private String email;
@@ -12,6 +15,8 @@ public class UserDto {
     private String teamCode;
     private String department;
     private String accountStatus;
+    private String thumbnailSmallUrl;
+    private String thumbnailLargeUrl;
 
     public UserDto(Long id, String email, String name, String pictureUrl, String role,
             Boolean isProfileComplete, String studentId, String facultyId, String teamCode,
@@ -128,4 +133,20 @@ public class UserDto {
     public void setAccountStatus(String accountStatus) {
         this.accountStatus = accountStatus;
     }
-}
\ No newline at end of file
+
+    public String getThumbnailSmallUrl() {
+        return thumbnailSmallUrl;
+    }
+
+    public void setThumbnailSmallUrl(String thumbnailSmallUrl) {
+        this.thumbnailSmallUrl = thumbnailSmallUrl;
+    }
+
+    public String getThumbnailLargeUrl() {
+        return thumbnailLargeUrl;
+    }
+
+    public void setThumbnailLargeUrl(String thumbnailLargeUrl) {
+        this.thumbnailLargeUrl = thumbnailLargeUrl;
+    }
+}
@@ -0,0 +1,50 @@
+package com.cit.thesis.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Records how many SQL statements each request's handler issued as
+ * {@code app.request.statements}, tagged with the HTTP method and the
+ * matched URI pattern (so path variables don't explode the tag values).
+ *
+ * The per-thread counter is reset once per request by the tracing filter;
+ * this interceptor only takes the difference, so the trace still sees the
+ * statements issued before the handler ran.
+ */
+public class RequestStatementsInterceptor implements HandlerInterceptor {
+
+    private static final String START_ATTRIBUTE = RequestStatementsInterceptor.class.getName() + ".start";
+
+    private final MeterRegistry registry;
+
+    public RequestStatementsInterceptor(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        request.setAttribute(START_ATTRIBUTE, StatementCounter.current());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+            Exception ex) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        Object start = request.getAttribute(START_ATTRIBUTE);
+        int statements = StatementCounter.current() - (start instanceof Integer count ? count : 0);
+
+        DistributionSummary.builder("app.request.statements")
+                .description("SQL statements issued per request")
+                .baseUnit("statements")
+                .tag("method", request.getMethod())
+                .tag("uri", pattern != null ? pattern.toString() : "UNKNOWN")
+                .register(registry)
+                .record(statements);
+    }
+}
@@ -0,0 +1,66 @@
+package com.cit.thesis.metrics;
+
+import com.cit.thesis.tracing.RequestTrace;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Times every public method of the service package as {@code app.service},
+ * tagged with the class, the method and the exception thrown (if any).
+ * The same measurement feeds the service phase of the request trace.
+ */
+@Aspect
+@Component
+public class ServiceTimingAspect {
+
+    static final String METRIC_NAME = "app.service";
+
+    private final MeterRegistry registry;
+    private final Map<Method, Timer> successTimers = new ConcurrentHashMap<>();
+
+    public ServiceTimingAspect(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Around("execution(public * com.cit.thesis.service..*.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        RequestTrace trace = RequestTrace.current();
+        if (trace != null) {
+            trace.enter(RequestTrace.Phase.SERVICE);
+        }
+
+        Timer.Sample sample = Timer.start(registry);
+        long elapsed = 0;
+        try {
+            Object result = joinPoint.proceed();
+            elapsed = sample.stop(successTimers.computeIfAbsent(method, m -> timer(m, "none")));
+            return result;
+        } catch (Throwable e) {
+            elapsed = sample.stop(timer(method, e.getClass().getSimpleName()));
+            throw e;
+        } finally {
+            if (trace != null) {
+                trace.exit(RequestTrace.Phase.SERVICE, elapsed);
+            }
+        }
+    }
+
+    private Timer timer(Method method, String exception) {
+        return Timer.builder(METRIC_NAME)
+                .description("Service method execution time")
+                .tag("class", method.getDeclaringClass().getSimpleName())
+                .tag("method", method.getName())
+                .tag("exception", exception)
+                .register(registry);
+    }
+}
@@ -14,7 +14,7 @@ import java.time.LocalDateTime;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-public class Consultation {
+public class Consultation implements ConsultationSummary {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -0,0 +1,31 @@
+package com.cit.thesis.model;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * The columns a consultation list needs, without the TEXT columns
+ * (description, adviser notes, rejection reason). Implemented by
+ * {@link Consultation}, so list mapping works on full entities and on
+ * the lean rows from ConsultationRepository alike.
+ */
+public interface ConsultationSummary {
+
+    Long getId();
+
+    Long getStudentId();
+
+    String getTeamCode();
+
+    Long getAdviserId();
+
+    String getTopic();
+
+    LocalDate getScheduledDate();
+
+    LocalTime getStartTime();
+
+    LocalTime getScheduledEnd();
+
+    ConsultationStatus getStatus();
+}
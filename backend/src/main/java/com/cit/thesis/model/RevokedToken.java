@@ -0,0 +1,25 @@
+package com.cit.thesis.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "revoked_tokens")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevokedToken {
+
+    // The jti claim of the revoked access token
+    @Id
+    private UUID jti;
+
+    // When the token would have expired; the row can be dropped after that
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
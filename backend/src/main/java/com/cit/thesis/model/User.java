@@ -4,11 +4,15 @@ import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -49,6 +53,13 @@ public class User {
     @Column(name = "picture_url")
     private String pictureUrl;
 
+    // 64px and 256px square thumbnails of pictureUrl; null until generated
+    @Column(name = "thumbnail_small_url")
+    private String thumbnailSmallUrl;
+
+    @Column(name = "thumbnail_large_url")
+    private String thumbnailLargeUrl;
+
     @Column(name = "is_profile_complete", nullable = false)
     private Boolean isProfileComplete = false;
 
@@ -67,6 +78,10 @@ public class User {
     @Column(name = "account_status", length = 20)
     private String accountStatus = "ACTIVE";
 
+    // Raised to revoke every token issued so far; see TokenRevocations
+    @Column(name = "token_epoch", nullable = false)
+    private Integer tokenEpoch = 0;
+
     @PrePersist
     protected void onCreate() {
         if (createdAt == null) {
@@ -87,5 +102,8 @@ public class User {
         if (accountStatus == null) {
             accountStatus = "ACTIVE";
         }
+        if (tokenEpoch == null) {
+            tokenEpoch = 0;
+        }
     }
 }
\ No newline at end of file
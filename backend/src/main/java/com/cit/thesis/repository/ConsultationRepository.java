@@ -2,6 +2,7 @@ package com.cit.thesis.repository;
 
 import com.cit.thesis.model.Consultation;
 import com.cit.thesis.model.ConsultationStatus;
+import com.cit.thesis.model.ConsultationSummary;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -10,10 +11,17 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ConsultationRepository extends JpaRepository<Consultation, Long> {
+
+    // Projection for list views; selects only the ConsultationSummary columns. It has to be
+    // its own type: Spring Data loads full entities for an interface the entity implements
+    interface ListRow extends ConsultationSummary {
+    }
+
     List<Consultation> findByStudentIdOrderByScheduledDateDesc(Long studentId);
 
     List<Consultation> findByAdviserIdOrderByScheduledDateDesc(Long adviserId);
@@ -24,6 +32,8 @@ public interface ConsultationRepository extends JpaRepository<Consultation, Long
 
     List<Consultation> findByStudentIdAndScheduledDateBeforeOrderByScheduledDateDesc(Long studentId, LocalDate date);
 
+    long countByAdviserIdAndStatus(Long adviserId, ConsultationStatus status);
+
     List<Consultation> findByAdviserIdAndStatusNotOrderByScheduledDateDesc(
             Long adviserId,
             ConsultationStatus status);
@@ -32,9 +42,44 @@ public interface ConsultationRepository extends JpaRepository<Consultation, Long
 
     long countByAdviserId(Long adviserId);
 
-    Page<Consultation> findByStudentIdOrderByScheduledDateDesc(Long studentId, Pageable pageable);
+    // Keyset page ordered by (scheduled_date, id) descending; the Pageable only carries the limit
+    @Query("SELECT c FROM Consultation c WHERE c.studentId = :studentId " +
+            "AND (c.scheduledDate < :date OR (c.scheduledDate = :date AND c.id < :id)) " +
+            "ORDER BY c.scheduledDate DESC, c.id DESC")
+    List<Consultation> findStudentPageAfter(@Param("studentId") Long studentId,
+            @Param("date") LocalDate date,
+            @Param("id") Long id,
+            Pageable limit);
+
+    // Dynamic projections: pass Consultation.class for entities or ListRow.class for lean rows
+    <T> List<T> findByAdviserIdOrderByScheduledDateDesc(Long adviserId, Class<T> type);
+
+    <T> List<T> findByStudentIdAndScheduledDateBeforeOrderByScheduledDateDesc(Long studentId, LocalDate date,
+            Class<T> type);
+
+    <T> List<T> findByStudentIdAndScheduledDateGreaterThanEqualOrderByScheduledDateAsc(Long studentId,
+            LocalDate date, Class<T> type);
+
+    <T> List<T> findByAdviserIdAndStatusOrderByScheduledDateDesc(Long adviserId, ConsultationStatus status,
+            Class<T> type);
+
+    <T> Page<T> findByAdviserIdAndStatus(Long adviserId, ConsultationStatus status, Pageable pageable,
+            Class<T> type);
+
+    <T> List<T> findByStudentIdOrderByScheduledDateDescIdDesc(Long studentId, Pageable limit, Class<T> type);
+
+    // Lean counterpart of findStudentPageAfter; string queries only project through explicit aliases
+    @Query("SELECT c.id AS id, c.studentId AS studentId, c.teamCode AS teamCode, c.adviserId AS adviserId, " +
+            "c.topic AS topic, c.scheduledDate AS scheduledDate, c.startTime AS startTime, " +
+            "c.scheduledEnd AS scheduledEnd, c.status AS status FROM Consultation c " +
+            "WHERE c.studentId = :studentId " +
+            "AND (c.scheduledDate < :date OR (c.scheduledDate = :date AND c.id < :id)) " +
+            "ORDER BY c.scheduledDate DESC, c.id DESC")
+    List<ListRow> findStudentRowPageAfter(@Param("studentId") Long studentId,
+            @Param("date") LocalDate date,
+            @Param("id") Long id,
+            Pageable limit);
 
-    @Query("SELECT c FROM Consultation c WHERE c.studentId = :studentId AND c.scheduledDate >= :date ORDER BY c.scheduledDate ASC")
-    List<Consultation> findUpcomingConsultationsFromDate(@Param("studentId") Long studentId,
-            @Param("date") LocalDate date);
-}
\ No newline at end of file
+    <T> List<T> findByAdviserIdAndScheduledDateBetweenAndStatusInOrderByScheduledDateAscStartTimeAsc(
+            Long adviserId, LocalDate from, LocalDate to, Collection<ConsultationStatus> statuses, Class<T> type);
+}
@@ -2,10 +2,10 @@ package com.cit.thesis.repository;
 
 import com.cit.thesis.model.Schedule;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDate;
@@ -13,15 +13,35 @@ import java.time.LocalTime;
 import java.util.List;
 
 @Repository
-public interface ScheduleRepository extends JpaRepository<Schedule, Long> {
+public interface ScheduleRepository extends JpaRepository<Schedule, Long>, ScheduleRepositoryCustom {
         List<Schedule> findByAdviserIdOrderByAvailableDateAsc(Long adviserId);
 
         List<Schedule> findByIsBookedFalseAndAvailableDateAfterOrderByAvailableDateAsc(LocalDate date);
 
+        List<Schedule> findByAvailableDateGreaterThanEqual(LocalDate date);
+
         @Query("SELECT s FROM Schedule s WHERE s.isBooked = false AND s.availableDate >= :date ORDER BY s.availableDate ASC")
         List<Schedule> findAvailableSchedulesFromDate(@Param("date") LocalDate date);
 
-        Page<Schedule> findByAdviserIdOrderByAvailableDateAsc(Long adviserId, Pageable pageable);
+        // Keyset pages ordered by (available_date, id); the Pageable only carries the limit
+        @Query("SELECT s FROM Schedule s WHERE s.adviserId = :adviserId AND s.availableDate >= :fromDate " +
+                        "ORDER BY s.availableDate ASC, s.id ASC")
+        List<Schedule> findAdviserPage(
+                        @Param("adviserId") Long adviserId,
+                        @Param("fromDate") LocalDate fromDate,
+                        Pageable limit);
+
+        @Query("SELECT s FROM Schedule s WHERE s.adviserId = :adviserId AND s.availableDate >= :fromDate " +
+                        "AND (s.availableDate > :date OR (s.availableDate = :date AND s.id > :id)) " +
+                        "ORDER BY s.availableDate ASC, s.id ASC")
+        List<Schedule> findAdviserPageAfter(
+                        @Param("adviserId") Long adviserId,
+                        @Param("fromDate") LocalDate fromDate,
+                        @Param("date") LocalDate date,
+                        @Param("id") Long id,
+                        Pageable limit);
+
+        long countByAdviserIdAndAvailableDateGreaterThanEqual(Long adviserId, LocalDate date);
 
         @Query("SELECT s FROM Schedule s WHERE s.adviserId = :adviserId " +
                         "AND s.availableDate = :date " +
@@ -32,6 +52,15 @@ public interface ScheduleRepository extends JpaRepository<Schedule, Long> {
                         @Param("startTime") LocalTime startTime,
                         @Param("endTime") LocalTime endTime);
 
+        // Everything an adviser has in a date range, for checking a batch of new slots in one read
+        @Query("SELECT s FROM Schedule s WHERE s.adviserId = :adviserId " +
+                        "AND s.availableDate BETWEEN :fromDate AND :toDate " +
+                        "ORDER BY s.availableDate ASC, s.startTime ASC")
+        List<Schedule> findAdviserSchedulesBetween(
+                        @Param("adviserId") Long adviserId,
+                        @Param("fromDate") LocalDate fromDate,
+                        @Param("toDate") LocalDate toDate);
+
         @Query("SELECT COUNT(s) > 0 FROM Schedule s WHERE s.adviserId = :adviserId " +
                         "AND s.availableDate = :date " +
                         "AND s.id != :excludeId " +
@@ -42,4 +71,13 @@ public interface ScheduleRepository extends JpaRepository<Schedule, Long> {
                         @Param("startTime") LocalTime startTime,
                         @Param("endTime") LocalTime endTime,
                         @Param("excludeId") Long excludeId);
+
+        // Flips is_booked only if the slot is still free; returns the number of rows claimed (0 or 1)
+        @Modifying
+        @Query("UPDATE Schedule s SET s.isBooked = true WHERE s.id = :id AND s.isBooked = false")
+        int claimSlot(@Param("id") Long id);
+
+        @Modifying
+        @Query("UPDATE Schedule s SET s.isBooked = false WHERE s.id = :id")
+        int releaseSlot(@Param("id") Long id);
 }
\ No newline at end of file
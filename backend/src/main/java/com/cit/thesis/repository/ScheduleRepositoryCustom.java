@@ -0,0 +1,14 @@
+package com.cit.thesis.repository;
+
+import com.cit.thesis.model.Schedule;
+
+import java.util.List;
+
+public interface ScheduleRepositoryCustom {
+
+    /**
+     * Inserts new schedules with batched JDBC statements, bypassing the
+     * persistence context. Ids and creation times are assigned in place.
+     */
+    List<Schedule> insertAll(List<Schedule> schedules);
+}
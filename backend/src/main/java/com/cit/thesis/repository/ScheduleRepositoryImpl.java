@@ -0,0 +1,62 @@
+package com.cit.thesis.repository;
+
+import com.cit.thesis.model.Schedule;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * JDBC side of {@link ScheduleRepository}. The entity uses IDENTITY ids,
+ * which keeps Hibernate from batching inserts, so ids are reserved from
+ * the identity sequence in one round trip and the rows are written with
+ * {@link JdbcTemplate#batchUpdate}.
+ */
+public class ScheduleRepositoryImpl implements ScheduleRepositoryCustom {
+
+    private static final String RESERVE_IDS = "SELECT nextval(pg_get_serial_sequence('schedules', 'id')) "
+            + "FROM generate_series(1, ?)";
+
+    private static final String INSERT = "INSERT INTO schedules "
+            + "(id, adviser_id, available_date, start_time, end_time, is_booked, created_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    public ScheduleRepositoryImpl(JdbcTemplate jdbcTemplate,
+            @Value("${app.schedules.bulk.batch-size:100}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public List<Schedule> insertAll(List<Schedule> schedules) {
+        if (schedules.isEmpty()) {
+            return schedules;
+        }
+
+        List<Long> ids = jdbcTemplate.queryForList(RESERVE_IDS, Long.class, schedules.size());
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < schedules.size(); i++) {
+            Schedule schedule = schedules.get(i);
+            schedule.setId(ids.get(i));
+            schedule.setCreatedAt(now);
+            if (schedule.getIsBooked() == null) {
+                schedule.setIsBooked(false);
+            }
+        }
+
+        jdbcTemplate.batchUpdate(INSERT, schedules, batchSize, (ps, schedule) -> {
+            ps.setLong(1, schedule.getId());
+            ps.setLong(2, schedule.getAdviserId());
+            ps.setObject(3, schedule.getAvailableDate());
+            ps.setObject(4, schedule.getStartTime());
+            ps.setObject(5, schedule.getEndTime());
+            ps.setBoolean(6, schedule.getIsBooked());
+            ps.setObject(7, schedule.getCreatedAt());
+        });
+        return schedules;
+    }
+}
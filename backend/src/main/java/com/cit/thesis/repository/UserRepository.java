@@ -1,7 +1,17 @@
 package com.cit.thesis.repository;
 
 import com.cit.thesis.model.User;
+import com.cit.thesis.model.UserRole;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -10,7 +20,68 @@ import java.util.Optional;
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
 
+    // Cached queries are invalidated by Hibernate whenever the users table is written through JPA
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     Optional<User> findByEmail(String email);
 
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     List<User> findByAccountStatus(String accountStatus);
-}
\ No newline at end of file
+
+    // One row per (account status, role) pair, for the admin dashboard counters
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT u.accountStatus AS accountStatus, u.role AS role, COUNT(u) AS total " +
+            "FROM User u GROUP BY u.accountStatus, u.role")
+    List<StatusRoleCount> countByAccountStatusAndRole();
+
+    // The same counts plus the snapshot they were read under, for seeding UserStatsCounter
+    @Query(value = "SELECT CAST(pg_current_snapshot() AS text) AS snapshot, c.account_status AS accountStatus, " +
+            "c.role AS role, c.total AS total FROM (SELECT 1) one LEFT JOIN " +
+            "(SELECT account_status, role, COUNT(*) AS total FROM users GROUP BY account_status, role) c ON TRUE",
+            nativeQuery = true)
+    List<SnapshotStatusRoleCount> countByAccountStatusAndRoleWithSnapshot();
+
+    @Query(value = "SELECT CAST(CAST(pg_current_xact_id() AS text) AS bigint)", nativeQuery = true)
+    long currentTransactionId();
+
+    // Users without a status are kept, matching the old in-memory filter
+    @Query("SELECT u FROM User u WHERE u.accountStatus IS NULL OR u.accountStatus <> :accountStatus")
+    List<User> findByAccountStatusNotOrNull(@Param("accountStatus") String accountStatus);
+
+    @Query(value = "SELECT u FROM User u WHERE u.accountStatus IS NULL OR u.accountStatus <> :accountStatus",
+            countQuery = "SELECT COUNT(u) FROM User u WHERE u.accountStatus IS NULL OR u.accountStatus <> :accountStatus")
+    Page<User> findByAccountStatusNotOrNull(@Param("accountStatus") String accountStatus, Pageable pageable);
+
+    // For the picture and thumbnail updates, which change a few columns of a row other requests
+    // may be saving: a bulk UPDATE would avoid the lost update but clear the whole users region
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u FROM User u WHERE u.id = :id")
+    Optional<User> findByIdForUpdate(@Param("id") Long id);
+
+    // Users whose earlier tokens have been revoked, loaded once at startup by TokenRevocations
+    @Query("SELECT u.id AS id, u.tokenEpoch AS tokenEpoch FROM User u WHERE u.tokenEpoch > 0")
+    List<UserTokenEpoch> findRaisedTokenEpochs();
+
+    interface StatusRoleCount {
+        String getAccountStatus();
+
+        UserRole getRole();
+
+        long getTotal();
+    }
+
+    interface SnapshotStatusRoleCount {
+        String getSnapshot();
+
+        String getAccountStatus();
+
+        String getRole();
+
+        Long getTotal();
+    }
+
+    interface UserTokenEpoch {
+        Long getId();
+
+        int getTokenEpoch();
+    }
+}
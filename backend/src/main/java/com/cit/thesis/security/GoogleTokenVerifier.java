@@ -0,0 +1,99 @@
+package com.cit.thesis.security;
+
+import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
+import com.google.api.client.googleapis.auth.oauth2.GoogleIdTokenVerifier;
+import com.google.api.client.googleapis.auth.oauth2.GooglePublicKeysManager;
+import com.google.api.client.http.HttpTransport;
+import com.google.api.client.json.gson.GsonFactory;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verifies Google ID tokens locally against a cached copy of Google's
+ * signing certificates.
+ *
+ * The certificates are fetched once at startup and refreshed in the
+ * background shortly before the expiry announced by the key server's cache
+ * headers, so logins only pay for the signature check. The key source is
+ * pluggable through {@code app.google.certs-url} and the
+ * {@link HttpTransport} bean, e.g. to point tests at a local key server.
+ */
+@Component
+public class GoogleTokenVerifier {
+
+    private static final Logger log = LoggerFactory.getLogger(GoogleTokenVerifier.class);
+
+    private static final long RETRY_DELAY_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private final GooglePublicKeysManager publicKeys;
+    private final GoogleIdTokenVerifier verifier;
+    private final long refreshMarginMillis;
+    private final ScheduledExecutorService refresher;
+
+    public GoogleTokenVerifier(HttpTransport googleHttpTransport,
+            @Value("${spring.security.oauth2.client.registration.google.client-id}") String clientId,
+            @Value("${app.google.certs-url:https://www.googleapis.com/oauth2/v1/certs}") String certsUrl,
+            @Value("${app.google.certs-refresh-margin:PT10M}") Duration refreshMargin) {
+        this.publicKeys = new GooglePublicKeysManager.Builder(googleHttpTransport, GsonFactory.getDefaultInstance())
+                .setPublicCertsEncodedUrl(certsUrl)
+                .build();
+        this.verifier = new GoogleIdTokenVerifier.Builder(publicKeys)
+                .setAudience(Collections.singletonList(clientId))
+                .build();
+        this.refreshMarginMillis = refreshMargin.toMillis();
+        this.refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "google-certs-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Loaded in the background so startup never waits on (or fails because of) Google
+    @PostConstruct
+    void start() {
+        refresher.execute(this::refresh);
+    }
+
+    @PreDestroy
+    void stop() {
+        refresher.shutdownNow();
+    }
+
+    /**
+     * Returns the parsed token, or null if the signature, issuer, audience or
+     * expiry check fails.
+     */
+    public GoogleIdToken verify(String credential) throws GeneralSecurityException, IOException {
+        return verifier.verify(credential);
+    }
+
+    private void refresh() {
+        long delay;
+        try {
+            publicKeys.refresh();
+            long expiresIn = publicKeys.getExpirationTimeMilliseconds() - System.currentTimeMillis();
+            delay = Math.max(RETRY_DELAY_MILLIS, expiresIn - refreshMarginMillis);
+            log.debug("Google signing keys refreshed, next refresh in {} ms", delay);
+        } catch (GeneralSecurityException | IOException | RuntimeException e) {
+            // Previously fetched keys stay in use until a refresh succeeds
+            delay = RETRY_DELAY_MILLIS;
+            log.warn("Refreshing Google signing keys failed, retrying in {} ms: {}", delay, e.getMessage());
+        }
+
+        if (!refresher.isShutdown()) {
+            refresher.schedule(this::refresh, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+}
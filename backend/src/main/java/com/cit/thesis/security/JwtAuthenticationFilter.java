@@ -1,81 +1,110 @@
 package com.cit.thesis.security;
 
+import com.cit.thesis.tracing.RequestTrace;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.Collections;
+import java.util.Set;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final Logger log = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
+
+    // The only /api/auth endpoints that act on the bearer token
+    private static final Set<String> BEARER_AUTH_PATHS = Set.of("/api/auth/complete-profile", "/api/auth/logout");
+
     private final JwtUtil jwtUtil;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final TokenRevocations tokenRevocations;
 
-    public JwtAuthenticationFilter(JwtUtil jwtUtil) {
+    public JwtAuthenticationFilter(JwtUtil jwtUtil, VerifiedTokenCache verifiedTokenCache,
+            TokenRevocations tokenRevocations) {
         this.jwtUtil = jwtUtil;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.tokenRevocations = tokenRevocations;
+    }
+
+    /**
+     * The verified claims of the bearer token the request was authenticated
+     * with, or null if this filter did not authenticate it.
+     */
+    public static Claims verifiedClaims(Authentication authentication) {
+        return authentication != null && authentication.getDetails() instanceof Claims claims ? claims : null;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getServletPath();
+        return path.startsWith("/api/auth/") && !BEARER_AUTH_PATHS.contains(path);
     }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
 
+        RequestTrace trace = RequestTrace.current();
+        long start = System.nanoTime();
+        if (trace != null) {
+            trace.enter(RequestTrace.Phase.FILTER);
+        }
+
         try {
             String authHeader = request.getHeader("Authorization");
-            System.out.println(
-                    "🔍 Step 1: authHeader = " + (authHeader != null ? authHeader.substring(0, 20) + "..." : "null"));
 
-            if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            if (authHeader != null && authHeader.startsWith("Bearer ")
+                    && SecurityContextHolder.getContext().getAuthentication() == null) {
                 String token = authHeader.substring(7);
-                System.out.println("🔍 Step 2: token extracted");
-
-                String email = jwtUtil.extractEmail(token);
-                System.out.println("🔍 Step 3: email = " + email);
-
-                if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                    System.out.println("🔍 Step 4: validating token...");
-                    if (jwtUtil.validateToken(token, email)) {
-                        System.out.println("🔍 Step 5: token valid");
-                        String role = jwtUtil.extractRole(token);
-                        System.out.println("🔍 Step 6: role = " + role);
-
-                        // Add debug logging
-                        System.out.println("🔍 Creating authority with role: " + role);
-                        SimpleGrantedAuthority authority = new SimpleGrantedAuthority(role);
-                        System.out.println("🔍 Authority created: " + authority.getAuthority());
-
-                        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                                email,
-                                null,
-                                role != null ? Collections.singletonList(authority)
-                                        : Collections.emptyList());
-
-                        authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                        SecurityContextHolder.getContext().setAuthentication(authentication);
-                        System.out.println(
-                                "✅ Step 7: Authentication set! Authorities: " + authentication.getAuthorities());
-                    } else {
-                        System.out.println("❌ Token validation failed!");
-                    }
-                } else {
-                    System.out.println("⚠️ Email is null or authentication already exists");
+
+                // Parse and verify once; repeat tokens are served from the cache
+                Claims claims = verifiedTokenCache.get(token);
+                if (claims == null) {
+                    claims = jwtUtil.parseVerifiedClaims(token);
+                    verifiedTokenCache.put(token, claims);
+                }
+
+                String email = claims.getSubject();
+                String role = claims.get("role", String.class);
+
+                // Answered from memory; a revoked token leaves the request unauthenticated
+                if (tokenRevocations.isRevoked(claims)) {
+                    log.debug("Rejected revoked token for {}", email);
+                } else if (email != null) {
+                    UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                            email,
+                            null,
+                            role != null ? Collections.singletonList(new SimpleGrantedAuthority(role))
+                                    : Collections.emptyList());
+
+                    // Downstream code reads the claims from here instead of parsing the token again
+                    authentication.setDetails(claims);
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
                 }
-            } else {
-                System.out.println("⚠️ No Bearer token found in request to: " + request.getRequestURI());
             }
+        } catch (JwtException e) {
+            log.debug("Token validation failed: {}", e.getMessage());
         } catch (Exception e) {
-            System.err.println("❌ JWT FILTER ERROR: " + e.getMessage());
-            e.printStackTrace();
+            log.warn("JWT filter error", e);
+        } finally {
+            if (trace != null) {
+                trace.exit(RequestTrace.Phase.FILTER, System.nanoTime() - start);
+            }
         }
 
-        System.out.println("🔍 Step 8: Calling filterChain.doFilter()");
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,125 @@
+package com.cit.thesis.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Token buckets per client IP and per account for the password endpoints,
+ * checked before any hashing is queued. Each attempt takes one token from
+ * both buckets; tokens refill continuously up to the bucket's capacity.
+ *
+ * A bucket left alone until it would be full again is dropped, which
+ * loses nothing, and the number of buckets is capped so a flood of
+ * distinct keys cannot grow the maps without bound.
+ */
+@Component
+public class LoginRateLimiter {
+
+    private static final long MAX_BUCKETS = 100_000;
+
+    private final Limit ipLimit;
+    private final Limit accountLimit;
+    private final Cache<String, TokenBucket> ipBuckets;
+    private final Cache<String, TokenBucket> accountBuckets;
+    private final Counter ipRejections;
+    private final Counter accountRejections;
+
+    public LoginRateLimiter(MeterRegistry meterRegistry,
+            @Value("${app.auth.rate-limit.ip.capacity:20}") int ipCapacity,
+            @Value("${app.auth.rate-limit.ip.per-minute:20}") int ipPerMinute,
+            @Value("${app.auth.rate-limit.account.capacity:5}") int accountCapacity,
+            @Value("${app.auth.rate-limit.account.per-minute:5}") int accountPerMinute) {
+        this.ipLimit = new Limit(ipCapacity, ipPerMinute);
+        this.accountLimit = new Limit(accountCapacity, accountPerMinute);
+        this.ipBuckets = buckets(ipLimit);
+        this.accountBuckets = buckets(accountLimit);
+        this.ipRejections = rejections(meterRegistry, "ip");
+        this.accountRejections = rejections(meterRegistry, "account");
+    }
+
+    /**
+     * Takes a token for the client and, if given, the account. Returns 0
+     * when the attempt may go ahead, otherwise the seconds until it may be
+     * retried.
+     */
+    public long acquire(String clientIp, String account) {
+        long ipWait = ipBuckets.get(clientIp, key -> new TokenBucket(ipLimit)).tryTake();
+        if (ipWait > 0) {
+            ipRejections.increment();
+            return toSeconds(ipWait);
+        }
+
+        if (account == null || account.isBlank()) {
+            return 0;
+        }
+        String accountKey = account.trim().toLowerCase(Locale.ROOT);
+        long accountWait = accountBuckets.get(accountKey, key -> new TokenBucket(accountLimit)).tryTake();
+        if (accountWait > 0) {
+            accountRejections.increment();
+            return toSeconds(accountWait);
+        }
+        return 0;
+    }
+
+    private static Cache<String, TokenBucket> buckets(Limit limit) {
+        return Caffeine.newBuilder()
+                .maximumSize(MAX_BUCKETS)
+                .expireAfterAccess(Duration.ofNanos(limit.nanosPerToken() * limit.capacity()))
+                .build();
+    }
+
+    private static Counter rejections(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("app.auth.throttled")
+                .description("Sign-in and registration attempts refused with 429")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private static long toSeconds(long nanos) {
+        return Math.max(1, (nanos + 999_999_999L) / 1_000_000_000L);
+    }
+
+    private record Limit(int capacity, int perMinute) {
+
+        Limit {
+            capacity = Math.max(1, capacity);
+            perMinute = Math.max(1, perMinute);
+        }
+
+        long nanosPerToken() {
+            return Duration.ofMinutes(1).toNanos() / perMinute;
+        }
+    }
+
+    private static final class TokenBucket {
+
+        private final Limit limit;
+        private double tokens;
+        private long refilledAt = System.nanoTime();
+
+        TokenBucket(Limit limit) {
+            this.limit = limit;
+            this.tokens = limit.capacity();
+        }
+
+        // 0 if a token was taken, otherwise nanoseconds until the next one
+        synchronized long tryTake() {
+            long now = System.nanoTime();
+            tokens = Math.min(limit.capacity(), tokens + (double) (now - refilledAt) / limit.nanosPerToken());
+            refilledAt = now;
+
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) * limit.nanosPerToken());
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.cit.thesis.security;
+
+/**
+ * Thrown when the password hashing pool cannot take another job; callers
+ * answer 429 with the suggested Retry-After.
+ */
+public class PasswordHashingBusyException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public PasswordHashingBusyException(long retryAfterSeconds) {
+        super("Too many sign-in attempts right now. Please try again in " + retryAfterSeconds + " seconds.");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
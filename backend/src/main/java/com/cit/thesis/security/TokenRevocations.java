@@ -0,0 +1,249 @@
+package com.cit.thesis.security;
+
+import com.cit.thesis.model.RevokedToken;
+import com.cit.thesis.model.User;
+import com.cit.thesis.repository.RefreshTokenRepository;
+import com.cit.thesis.repository.RevokedTokenRepository;
+import com.cit.thesis.repository.UserRepository;
+import com.cit.thesis.transaction.AfterCommit;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Revoked access tokens, held in memory so {@link JwtAuthenticationFilter}
+ * can refuse them without a query per request.
+ *
+ * Two mechanisms cover the two ways a token is revoked:
+ * <ul>
+ * <li>Per-user token epoch. Deactivating or deleting a user raises
+ * {@code users.token_epoch}; tokens carry the user's id and the epoch they
+ * were issued under and are refused once it is behind. Only users with a
+ * raised epoch are kept in the map, by id, so an account created later
+ * with the same email is not affected. Tokens without a user id were
+ * issued before it was added and can only run out.</li>
+ * <li>Single tokens (logout). Their jti goes to {@code revoked_tokens} and
+ * into a bloom filter. Ids the filter does not know, i.e. almost every
+ * request, are answered in memory; hits are confirmed against the table
+ * once and the answer cached.</li>
+ * </ul>
+ *
+ * Both are loaded at startup. Expired rows are purged periodically and the
+ * filter rebuilt from what is left. Like the other in-memory indexes this
+ * assumes a single application instance.
+ */
+@Component
+public class TokenRevocations {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocations.class);
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final UserRepository userRepository;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final int expectedRevocations;
+    private final Duration purgeInterval;
+
+    private final Map<Long, Integer> epochs = new ConcurrentHashMap<>();
+    // Bloom filter hits checked against revoked_tokens
+    private final Cache<UUID, Boolean> confirmed;
+    private volatile TokenIdBloomFilter revokedIds;
+    // Set while a replacement filter is being loaded, so concurrent revocations reach it too
+    private volatile TokenIdBloomFilter rebuilding;
+    private final ScheduledExecutorService purger;
+
+    private final Counter epochRejections;
+    private final Counter revokedRejections;
+    private final Counter falsePositives;
+
+    public TokenRevocations(UserRepository userRepository, RefreshTokenRepository refreshTokenRepository,
+            RevokedTokenRepository revokedTokenRepository, MeterRegistry meterRegistry,
+            @Value("${app.jwt.revocation.expected:100000}") int expectedRevocations,
+            @Value("${app.jwt.revocation.purge-interval:PT1H}") Duration purgeInterval,
+            @Value("${app.jwt.expiration}") long accessTokenMillis) {
+        this.userRepository = userRepository;
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.expectedRevocations = Math.max(1, expectedRevocations);
+        this.purgeInterval = purgeInterval;
+        this.revokedIds = new TokenIdBloomFilter(this.expectedRevocations, FALSE_POSITIVE_RATE);
+        // A revoked id only matters while its token is still valid
+        this.confirmed = Caffeine.newBuilder()
+                .maximumSize(this.expectedRevocations)
+                .expireAfterWrite(Duration.ofMillis(accessTokenMillis))
+                .build();
+        this.purger = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "token-revocation-purge");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.epochRejections = rejections(meterRegistry, "epoch");
+        this.revokedRejections = rejections(meterRegistry, "revoked");
+        this.falsePositives = Counter.builder("app.auth.revocation.false-positives")
+                .description("Bloom filter hits for access tokens that were not revoked")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        for (UserRepository.UserTokenEpoch raised : userRepository.findRaisedTokenEpochs()) {
+            epochs.put(raised.getId(), raised.getTokenEpoch());
+        }
+        rebuild();
+        long periodMillis = purgeInterval.toMillis();
+        purger.scheduleWithFixedDelay(this::purge, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        purger.shutdownNow();
+    }
+
+    /**
+     * Whether the verified token has been revoked, either on its own or by
+     * a later epoch of its user.
+     */
+    public boolean isRevoked(Claims claims) {
+        Long userId = userIdOf(claims);
+        Integer epoch = userId != null ? epochs.get(userId) : null;
+        if (epoch != null && epochOf(claims) < epoch) {
+            epochRejections.increment();
+            return true;
+        }
+
+        UUID jti = tokenId(claims);
+        if (jti == null || !revokedIds.mightContain(jti)) {
+            return false;
+        }
+        boolean revoked = confirmed.get(jti, revokedTokenRepository::existsById);
+        if (revoked) {
+            revokedRejections.increment();
+        } else {
+            falsePositives.increment();
+        }
+        return revoked;
+    }
+
+    /**
+     * Revokes a single access token until it expires. Takes effect when
+     * the surrounding transaction commits.
+     */
+    public void revoke(Claims claims) {
+        UUID jti = tokenId(claims);
+        if (jti == null || claims.getExpiration() == null) {
+            return;
+        }
+        LocalDateTime expiresAt = LocalDateTime.ofInstant(claims.getExpiration().toInstant(), ZoneId.systemDefault());
+        revokedTokenRepository.save(new RevokedToken(jti, expiresAt));
+        AfterCommit.run(() -> {
+            confirmed.put(jti, true);
+            remember(jti);
+        });
+    }
+
+    /**
+     * Revokes every access and refresh token issued to the user so far by
+     * raising the user's epoch. The caller saves (or deletes) the user in
+     * the same transaction; the filter honours the new epoch once it commits.
+     */
+    public void revokeAll(User user) {
+        int epoch = (user.getTokenEpoch() != null ? user.getTokenEpoch() : 0) + 1;
+        user.setTokenEpoch(epoch);
+        refreshTokenRepository.revokeAllForUser(user.getId(), LocalDateTime.now());
+
+        // Kept when the user is deleted too: ids are not reused, and the old tokens stay refused
+        Long userId = user.getId();
+        AfterCommit.run(() -> epochs.merge(userId, epoch, Math::max));
+    }
+
+    public static int epochOf(Claims claims) {
+        Integer epoch = claims.get(JwtUtil.EPOCH_CLAIM, Integer.class);
+        return epoch != null ? epoch : 0;
+    }
+
+    private static Long userIdOf(Claims claims) {
+        Object userId = claims.get(JwtUtil.USER_ID_CLAIM);
+        return userId instanceof Number number ? number.longValue() : null;
+    }
+
+    // Tokens issued before ids were added have none and can only be revoked by epoch
+    private static UUID tokenId(Claims claims) {
+        String id = claims.getId();
+        if (id == null) {
+            return null;
+        }
+        try {
+            return UUID.fromString(id);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private void remember(UUID jti) {
+        // Read before adding: a rebuild that had not started yet will find the
+        // committed row, one that has finished is seen through revokedIds
+        TokenIdBloomFilter next = rebuilding;
+        revokedIds.add(jti);
+        if (next != null) {
+            next.add(jti);
+        }
+    }
+
+    private void purge() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            int revoked = revokedTokenRepository.deleteExpired(now);
+            int refresh = refreshTokenRepository.deleteExpired(now);
+            log.debug("Purged {} revoked and {} refresh tokens past expiry", revoked, refresh);
+            rebuild();
+        } catch (Exception e) {
+            log.warn("Token revocation purge failed: {}", e.getMessage());
+        }
+    }
+
+    private void rebuild() {
+        // Sized with headroom so the rate holds until the next rebuild
+        long rows = revokedTokenRepository.count();
+        TokenIdBloomFilter next = new TokenIdBloomFilter(
+                (int) Math.min(Integer.MAX_VALUE / 2, Math.max(expectedRevocations, rows * 2)), FALSE_POSITIVE_RATE);
+        // Published before the load, so a revocation committed after the query still reaches it
+        rebuilding = next;
+        List<UUID> unexpired;
+        try {
+            unexpired = revokedTokenRepository.findUnexpiredJtis(LocalDateTime.now());
+            unexpired.forEach(next::add);
+            revokedIds = next;
+        } finally {
+            rebuilding = null;
+        }
+        log.debug("Loaded {} revoked token ids into a {} KB filter", unexpired.size(), next.sizeInBytes() / 1024);
+    }
+
+    private static Counter rejections(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("app.auth.tokens.rejected")
+                .description("Access tokens refused because they were revoked")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
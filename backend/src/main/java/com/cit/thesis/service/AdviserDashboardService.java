@@ -0,0 +1,102 @@
+package com.cit.thesis.service;
+
+import com.cit.thesis.dto.AdviserDashboardDto;
+import com.cit.thesis.dto.ConsultationDto;
+import com.cit.thesis.dto.ScheduleDto;
+import com.cit.thesis.model.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+
+/**
+ * Builds the adviser dashboard with two queries (the pending count and
+ * this week's consultations as lean rows); slot figures come from
+ * {@link OpenSlotIndex}.
+ *
+ * Results are cached per adviser under their {@link ContentVersions} tag,
+ * which changes with every booking, status change or slot change of that
+ * adviser, with user renames, and at midnight. A cached entry with an
+ * outdated tag is simply rebuilt.
+ */
+@Service
+public class AdviserDashboardService {
+
+    private final UserDirectory userDirectory;
+    private final ConsultationService consultationService;
+    private final OpenSlotIndex openSlotIndex;
+    private final ContentVersions contentVersions;
+    private final Cache<Key, Entry> dashboards;
+
+    public AdviserDashboardService(UserDirectory userDirectory, ConsultationService consultationService,
+            OpenSlotIndex openSlotIndex, ContentVersions contentVersions,
+            @Value("${app.cache.dashboard.max-size:1000}") long maxSize,
+            @Value("${app.cache.dashboard.ttl:PT10M}") Duration ttl) {
+        this.userDirectory = userDirectory;
+        this.consultationService = consultationService;
+        this.openSlotIndex = openSlotIndex;
+        this.contentVersions = contentVersions;
+        this.dashboards = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public AdviserDashboardDto getDashboard(String email, int slotLimit) {
+        User adviser = userDirectory.findByEmail(email)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        // Tag first, so a change committing while we build makes the entry stale rather than lost
+        String tag = contentVersions.userTag(email);
+        Key key = new Key(adviser.getId(), slotLimit);
+        Entry cached = dashboards.getIfPresent(key);
+        if (cached != null && cached.tag().equals(tag)) {
+            return cached.dashboard();
+        }
+
+        AdviserDashboardDto dashboard = build(adviser.getId(), slotLimit);
+        dashboards.put(key, new Entry(tag, dashboard));
+        return dashboard;
+    }
+
+    private AdviserDashboardDto build(Long adviserId, int slotLimit) {
+        LocalDate today = LocalDate.now();
+        LocalDate weekStart = today.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        LocalDate weekEnd = today.with(TemporalAdjusters.nextOrSame(DayOfWeek.SUNDAY));
+
+        long pendingCount = consultationService.countPendingForAdviser(adviserId);
+        List<ConsultationDto> thisWeek = consultationService.getActiveConsultationsForAdviser(adviserId,
+                weekStart, weekEnd);
+        List<ConsultationDto> todays = thisWeek.stream()
+                .filter(c -> today.equals(c.getScheduledDate()))
+                .toList();
+
+        // Ordered by date and start time, from today on
+        List<ScheduleDto> openSlots = openSlotIndex.getAvailableForAdviser(adviserId, today);
+        int openToday = (int) openSlots.stream().filter(s -> today.equals(s.getAvailableDate())).count();
+        int openThisWeek = (int) openSlots.stream().filter(s -> !s.getAvailableDate().isAfter(weekEnd)).count();
+
+        return new AdviserDashboardDto(
+                pendingCount,
+                weekStart,
+                weekEnd,
+                todays,
+                List.copyOf(thisWeek),
+                openToday,
+                openThisWeek,
+                openSlots.size(),
+                List.copyOf(openSlots.subList(0, Math.min(slotLimit, openSlots.size()))));
+    }
+
+    private record Key(Long adviserId, int slotLimit) {
+    }
+
+    private record Entry(String tag, AdviserDashboardDto dashboard) {
+    }
+}
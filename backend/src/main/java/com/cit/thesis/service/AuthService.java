@@ -1,10 +1,11 @@
 package com.cit.thesis.service;
 
-import java.util.Collections;
-
-import org.springframework.beans.factory.annotation.Value;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
 
 import com.cit.thesis.dto.AuthResponse;
 import com.cit.thesis.dto.CompleteProfileRequest;
@@ -15,29 +16,46 @@ import com.cit.thesis.dto.UserDto;
 import com.cit.thesis.model.User;
 import com.cit.thesis.model.UserRole;
 import com.cit.thesis.repository.UserRepository;
+import com.cit.thesis.security.GoogleTokenVerifier;
 import com.cit.thesis.security.JwtUtil;
+import com.cit.thesis.security.TokenRevocations;
 import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
-import com.google.api.client.googleapis.auth.oauth2.GoogleIdTokenVerifier;
-import com.google.api.client.http.javanet.NetHttpTransport;
-import com.google.api.client.json.gson.GsonFactory;
+import io.jsonwebtoken.Claims;
 
 @Service
 public class AuthService {
 
+    private static final Logger log = LoggerFactory.getLogger(AuthService.class);
+
     private final UserRepository userRepository;
+    private final UserDirectory userDirectory;
+    private final UserStatsCounter userStatsCounter;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
-
-    @Value("${spring.security.oauth2.client.registration.google.client-id}")
-    private String googleClientId;
-
-    public AuthService(UserRepository userRepository, PasswordEncoder passwordEncoder,
-            JwtUtil jwtUtil) {
+    private final GoogleTokenVerifier googleTokenVerifier;
+    private final RefreshTokenService refreshTokenService;
+    private final TokenRevocations tokenRevocations;
+    private final TransactionOperations transactions;
+
+    public AuthService(UserRepository userRepository, UserDirectory userDirectory,
+            UserStatsCounter userStatsCounter, PasswordEncoder passwordEncoder, JwtUtil jwtUtil,
+            GoogleTokenVerifier googleTokenVerifier, RefreshTokenService refreshTokenService,
+            TokenRevocations tokenRevocations, TransactionOperations transactions) {
         this.userRepository = userRepository;
+        this.userDirectory = userDirectory;
+        this.userStatsCounter = userStatsCounter;
         this.passwordEncoder = passwordEncoder;
         this.jwtUtil = jwtUtil;
+        this.googleTokenVerifier = googleTokenVerifier;
+        this.refreshTokenService = refreshTokenService;
+        this.tokenRevocations = tokenRevocations;
+        this.transactions = transactions;
     }
 
+    // The Google token and passwords are checked with no connection held (BCrypt also waits on
+    // the hashing queue); a transaction opens only to write the user and the refresh token.
+    // Lookups stay out of read-only transactions so they read the primary: an account created
+    // or changed moments ago may not have reached a replica yet
     public AuthResponse loginWithGoogle(GoogleLoginRequest request) {
         try {
             // Check if credential is provided
@@ -45,14 +63,8 @@ public class AuthService {
                 throw new RuntimeException("Google credential is missing");
             }
 
-            // 1. Verify Google token
-            GoogleIdTokenVerifier verifier = new GoogleIdTokenVerifier.Builder(
-                    new NetHttpTransport(),
-                    GsonFactory.getDefaultInstance())
-                    .setAudience(Collections.singletonList(googleClientId))
-                    .build();
-
-            GoogleIdToken idToken = verifier.verify(request.getCredential());
+            // 1. Verify Google token (locally, against the cached signing keys)
+            GoogleIdToken idToken = googleTokenVerifier.verify(request.getCredential());
 
             if (idToken == null) {
                 throw new RuntimeException("Invalid Google token. Please try again.");
@@ -64,61 +76,50 @@ public class AuthService {
             String name = (String) payload.get("name");
             String picture = (String) payload.get("picture");
 
-            // 3. Check if user exists
-            User user = userRepository.findByEmail(email).orElse(null);
-
-            if (user == null) {
-                // Create new user with required fields
-                user = new User();
-                user.setEmail(email);
-                user.setName(name);
-                user.setPictureUrl(picture);
-                user.setAuthProvider("google");
-                user.setEmailVerified(true);
-                user.setRole(null);
-                user.setIsProfileComplete(false);
-                user = userRepository.save(user);
-            } else {
-                if (user.getActive() == false || "DEACTIVATED".equals(user.getAccountStatus())) {
-                    throw new RuntimeException("Account is deactivated. Contact administrator.");
-                }
-                // Existing user - check profile completion
-                if (!user.getIsProfileComplete()) {
-                    String token = user.getRole() != null
-                            ? jwtUtil.generateToken(user.getEmail(), user.getRole().name())
-                            : jwtUtil.generateToken(user.getEmail());
-                    return buildAuthResponse(user, token);
-                }
-
-                if ("PENDING".equals(user.getAccountStatus())) {
-                    throw new RuntimeException(
-                            "Your account is pending IT Department approval. Please check back later.");
-                }
-            }
-
-            // 4. Generate JWT token
-            String token = user.getRole() != null
-                    ? jwtUtil.generateToken(user.getEmail(), user.getRole().name())
-                    : jwtUtil.generateToken(user.getEmail());
-
-            // 6. Return response
-            return buildAuthResponse(user, token);
+            // 3. Create the user if needed and issue access and refresh tokens
+            return transactions.execute(status -> signInWithGoogle(email, name, picture));
 
         } catch (Exception e) {
-            System.err.println("Google authentication error: " + e.getMessage());
-            e.printStackTrace();
+            log.warn("Google authentication error: {}", e.getMessage());
+            log.debug("Google authentication error", e);
             throw new RuntimeException("Google authentication failed: " + e.getMessage(), e);
         }
     }
 
-    public AuthResponse completeProfile(CompleteProfileRequest request, String email) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    private AuthResponse signInWithGoogle(String email, String name, String picture) {
+        User user = userDirectory.findByEmail(email).orElse(null);
+
+        if (user == null) {
+            // Create new user with required fields
+            user = new User();
+            user.setEmail(email);
+            user.setName(name);
+            user.setPictureUrl(picture);
+            user.setAuthProvider("google");
+            user.setEmailVerified(true);
+            user.setRole(null);
+            user.setIsProfileComplete(false);
+            user = userRepository.save(user);
+            userStatsCounter.added(user.getAccountStatus(), user.getRole());
+        } else {
+            if (user.getActive() == false || "DEACTIVATED".equals(user.getAccountStatus())) {
+                throw new RuntimeException("Account is deactivated. Contact administrator.");
+            }
+            // Existing user - check profile completion
+            if (!user.getIsProfileComplete()) {
+                return buildAuthResponse(user);
+            }
 
-        if (user.getIsProfileComplete()) {
-            throw new RuntimeException("Profile already completed");
+            if ("PENDING".equals(user.getAccountStatus())) {
+                throw new RuntimeException(
+                        "Your account is pending IT Department approval. Please check back later.");
+            }
         }
 
+        return buildAuthResponse(user);
+    }
+
+    public AuthResponse completeProfile(CompleteProfileRequest request, String email) {
         UserRole selectedRole;
         try {
             selectedRole = UserRole.valueOf(request.getRole().toUpperCase());
@@ -130,6 +131,7 @@ public class AuthService {
             throw new RuntimeException("Admin accounts must be created by system administrators");
         }
 
+        String teamCode = null;
         if (selectedRole == UserRole.STUDENT_REP) {
             if (request.getStudentId() == null || request.getStudentId().isBlank()) {
                 throw new RuntimeException("Student ID is required for student accounts");
@@ -139,19 +141,13 @@ public class AuthService {
             }
 
             // CONVERT TO UPPERCASE FIRST
-            String teamCode = request.getTeamCode().toUpperCase().trim();
+            teamCode = request.getTeamCode().toUpperCase().trim();
 
             // THEN VALIDATE
             if (!teamCode.matches("^TEAM-\\d{2}$")) {
                 throw new RuntimeException("Team code must follow format TEAM-XX (e.g., TEAM-01, TEAM-15)");
             }
 
-            user.setStudentId(request.getStudentId());
-            user.setTeamCode(teamCode);
-            user.setRole(UserRole.STUDENT_REP);
-            user.setIsProfileComplete(true);
-            user.setAccountStatus("ACTIVE");
-
         } else if (selectedRole == UserRole.FACULTY_ADVISER) {
             if (request.getFacultyId() == null || request.getFacultyId().isBlank()) {
                 throw new RuntimeException("Faculty ID is required for faculty accounts");
@@ -159,26 +155,49 @@ public class AuthService {
             if (request.getDepartment() == null || request.getDepartment().isBlank()) {
                 throw new RuntimeException("Department is required for faculty accounts");
             }
+        }
+
+        String validTeamCode = teamCode;
+        return transactions.execute(status -> applyProfile(email, selectedRole, request, validTeamCode));
+    }
+
+    // Runs in completeProfile's transaction, once the request has been validated
+    private AuthResponse applyProfile(String email, UserRole selectedRole, CompleteProfileRequest request,
+            String teamCode) {
+        User user = userRepository.findByEmail(email)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        if (user.getIsProfileComplete()) {
+            throw new RuntimeException("Profile already completed");
+        }
+
+        String oldStatus = user.getAccountStatus();
+        UserRole oldRole = user.getRole();
+
+        if (selectedRole == UserRole.STUDENT_REP) {
+            user.setStudentId(request.getStudentId());
+            user.setTeamCode(teamCode);
+            user.setRole(UserRole.STUDENT_REP);
+            user.setIsProfileComplete(true);
+            user.setAccountStatus("ACTIVE");
+
+        } else if (selectedRole == UserRole.FACULTY_ADVISER) {
             user.setFacultyId(request.getFacultyId());
             user.setDepartment("IT Department");
             user.setRole(UserRole.FACULTY_ADVISER);
             user.setIsProfileComplete(true);
             user.setAccountStatus("PENDING");
-
-        } else if (selectedRole == UserRole.ADMIN) {
-            user.setRole(UserRole.ADMIN);
-            user.setIsProfileComplete(true);
-            user.setAccountStatus("ACTIVE");
         }
 
         user = userRepository.save(user);
+        userDirectory.evict(user);
+        userStatsCounter.changed(oldStatus, oldRole, user.getAccountStatus(), user.getRole());
 
-        String token = jwtUtil.generateToken(user.getEmail(), user.getRole().name());
-        return buildAuthResponse(user, token);
+        return buildAuthResponse(user);
     }
 
     public AuthResponse loginWithEmail(LoginRequest request) {
-        User user = userRepository.findByEmail(request.getEmail())
+        User user = userDirectory.findByEmail(request.getEmail())
                 .orElseThrow(() -> new RuntimeException("Invalid credentials"));
 
         if ("google".equals(user.getAuthProvider())) {
@@ -194,22 +213,12 @@ public class AuthService {
             throw new RuntimeException("Invalid credentials");
         }
 
-        if (!user.getIsProfileComplete()) {
-            String token = user.getRole() != null
-                    ? jwtUtil.generateToken(user.getEmail(), user.getRole().name())
-                    : jwtUtil.generateToken(user.getEmail());
-            return buildAuthResponse(user, token);
-        }
-
-        if ("PENDING".equals(user.getAccountStatus())) {
+        if (user.getIsProfileComplete() && "PENDING".equals(user.getAccountStatus())) {
             throw new RuntimeException(
                     "Your account is pending IT Department approval. Please check back later.");
         }
 
-        String token = user.getRole() != null
-                ? jwtUtil.generateToken(user.getEmail(), user.getRole().name())
-                : jwtUtil.generateToken(user.getEmail());
-        return buildAuthResponse(user, token);
+        return transactions.execute(status -> buildAuthResponse(user));
     }
 
     public AuthResponse register(RegisterRequest request) {
@@ -227,15 +236,62 @@ public class AuthService {
         user.setIsProfileComplete(false);
         user.setAccountStatus("ACTIVE");
 
-        user = userRepository.save(user);
+        // A concurrent sign-up of the same email fails here on the unique constraint
+        return transactions.execute(status -> {
+            User saved = userRepository.save(user);
+            userStatsCounter.added(saved.getAccountStatus(), saved.getRole());
+            return buildAuthResponse(saved);
+        });
+    }
+
+    /**
+     * Exchanges a refresh token for a new access token and the next refresh
+     * token. The account is checked again, so a deactivated user cannot
+     * refresh even with a token that predates the deactivation.
+     */
+    @Transactional(noRollbackFor = InvalidRefreshTokenException.class)
+    public AuthResponse refresh(String refreshToken) {
+        if (refreshToken == null || refreshToken.isBlank()) {
+            throw new InvalidRefreshTokenException("Refresh token is missing");
+        }
+
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshToken);
+        User user = userRepository.findById(rotation.userId())
+                .orElseThrow(() -> new InvalidRefreshTokenException("User not found"));
+
+        if (user.getActive() == false || "DEACTIVATED".equals(user.getAccountStatus())) {
+            refreshTokenService.revokeFamily(rotation.refreshToken());
+            throw new InvalidRefreshTokenException("ACCOUNT_DEACTIVATED");
+        }
 
-        String token = user.getRole() != null
-                ? jwtUtil.generateToken(user.getEmail(), user.getRole().name())
-                : jwtUtil.generateToken(user.getEmail());
-        return buildAuthResponse(user, token);
+        return buildAuthResponse(user, rotation.refreshToken());
     }
 
-    private AuthResponse buildAuthResponse(User user, String token) {
+    /**
+     * Revokes the verified access token and the refresh token's family.
+     * Either may be missing; an access token that no longer verifies has
+     * nothing left to revoke.
+     */
+    @Transactional
+    public void logout(Claims accessToken, String refreshToken) {
+        if (accessToken != null) {
+            tokenRevocations.revoke(accessToken);
+        }
+        if (refreshToken != null && !refreshToken.isBlank()) {
+            refreshTokenService.revokeFamily(refreshToken);
+        }
+    }
+
+    // Starts a new refresh token family; every sign-in path ends here
+    private AuthResponse buildAuthResponse(User user) {
+        return buildAuthResponse(user, refreshTokenService.issue(user));
+    }
+
+    private AuthResponse buildAuthResponse(User user, String refreshToken) {
+        String token = jwtUtil.generateToken(user.getId(), user.getEmail(),
+                user.getRole() != null ? user.getRole().name() : null,
+                user.getTokenEpoch() != null ? user.getTokenEpoch() : 0);
+
         UserDto userDto = new UserDto(
                 user.getId(),
                 user.getEmail(),
@@ -248,7 +304,9 @@ public class AuthService {
                 user.getTeamCode(),
                 user.getDepartment(),
                 user.getAccountStatus());
+        userDto.setThumbnailSmallUrl(user.getThumbnailSmallUrl());
+        userDto.setThumbnailLargeUrl(user.getThumbnailLargeUrl());
 
-        return new AuthResponse(token, userDto);
+        return new AuthResponse(token, refreshToken, userDto);
     }
 }
\ No newline at end of file
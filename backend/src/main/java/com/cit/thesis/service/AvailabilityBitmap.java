@@ -0,0 +1,269 @@
+package com.cit.thesis.service;
+
+import com.cit.thesis.dto.FreeWindow;
+import com.cit.thesis.model.Schedule;
+import com.cit.thesis.transaction.AfterCommit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Occupied time of every adviser-day as a bitset of 5-minute quanta (288
+ * bits, five longs), so overlap checks and free-time searches are a few
+ * word operations instead of a range query.
+ *
+ * Each day keeps two masks: {@code committed} mirrors the schedules table
+ * and {@code pending} holds slots reserved by transactions that have not
+ * finished yet. Pending bits move to committed after commit and are
+ * dropped on rollback, so concurrent creators see each other's slots
+ * before either one is visible in the database.
+ *
+ * The masks are conservative: a slot whose times are not on a quantum
+ * boundary marks every quantum it touches, and deleting it clears only
+ * the quanta it fully covers. A clear bit therefore always means free,
+ * while a set bit may be a false positive. Hence {@link Reservation#CHECK}
+ * is returned instead of a verdict: the caller confirms against the
+ * database and then calls {@link #reserveConfirmed}.
+ *
+ * ScheduleService loads it at startup from today onwards; like
+ * OpenSlotIndex it assumes a single application instance.
+ */
+@Component
+public class AvailabilityBitmap {
+
+    public static final int QUANTUM_MINUTES = 5;
+
+    private static final int QUANTUM_SECONDS = QUANTUM_MINUTES * 60;
+    private static final int QUANTA = 24 * 60 / QUANTUM_MINUTES;
+    private static final int WORDS = (QUANTA + 63) / 64;
+
+    public enum Reservation {
+        // Marked as pending; released again if the transaction rolls back
+        RESERVED,
+        // Overlaps a committed slot, or only seems to; confirm with the database
+        CHECK,
+        // Overlaps a slot another transaction is creating right now
+        BUSY
+    }
+
+    private final Map<Long, ConcurrentSkipListMap<LocalDate, Day>> days = new ConcurrentHashMap<>();
+
+    public void load(Collection<Schedule> schedules) {
+        days.clear();
+        for (Schedule schedule : schedules) {
+            day(schedule.getAdviserId(), schedule.getAvailableDate())
+                    .commit(outer(schedule.getStartTime(), schedule.getEndTime()));
+        }
+    }
+
+    public Reservation tryReserve(Long adviserId, LocalDate date, LocalTime start, LocalTime end) {
+        return reserve(adviserId, date, start, end, false);
+    }
+
+    // For a slot the database has just confirmed as free despite set bits
+    public Reservation reserveConfirmed(Long adviserId, LocalDate date, LocalTime start, LocalTime end) {
+        return reserve(adviserId, date, start, end, true);
+    }
+
+    // Applied after commit; frees only the quanta the slot covers completely
+    public void release(Long adviserId, LocalDate date, LocalTime start, LocalTime end) {
+        long[] inner = inner(start, end);
+        AfterCommit.run(() -> day(adviserId, date).uncommit(inner));
+    }
+
+    /**
+     * Unoccupied stretches of at least {@code minMinutes} between
+     * {@code from} and {@code to}. Slots still being created count as
+     * occupied. An end of {@link LocalTime#MAX} means midnight.
+     */
+    public List<FreeWindow> freeWindows(Long adviserId, LocalDate date, LocalTime from, LocalTime to,
+            int minMinutes) {
+        long[] occupied = day(adviserId, date).occupied();
+
+        int first = ceilQuantum(from);
+        int last = to.equals(LocalTime.MAX) ? QUANTA : floorQuantum(to);
+        int minQuanta = Math.max(1, (minMinutes + QUANTUM_MINUTES - 1) / QUANTUM_MINUTES);
+
+        List<FreeWindow> windows = new ArrayList<>();
+        int q = nextClear(occupied, first, last);
+        while (q < last) {
+            int runEnd = nextSet(occupied, q, last);
+            if (runEnd - q >= minQuanta) {
+                windows.add(new FreeWindow(timeOf(q), runEnd == QUANTA ? LocalTime.MAX : timeOf(runEnd)));
+            }
+            q = nextClear(occupied, runEnd, last);
+        }
+        return windows;
+    }
+
+    private Reservation reserve(Long adviserId, LocalDate date, LocalTime start, LocalTime end,
+            boolean confirmed) {
+        long[] range = outer(start, end);
+        Day day = day(adviserId, date);
+
+        Reservation result = day.reserve(range, confirmed);
+        if (result != Reservation.RESERVED) {
+            return result;
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            day.commitPending(range);
+            return result;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    day.commitPending(range);
+                } else {
+                    day.dropPending(range);
+                }
+            }
+        });
+        return result;
+    }
+
+    private Day day(Long adviserId, LocalDate date) {
+        ConcurrentSkipListMap<LocalDate, Day> adviserDays = days.computeIfAbsent(adviserId,
+                id -> new ConcurrentSkipListMap<>());
+
+        // Past days are never queried again
+        LocalDate today = LocalDate.now();
+        if (!adviserDays.isEmpty() && adviserDays.firstKey().isBefore(today)) {
+            adviserDays.headMap(today).clear();
+        }
+        return adviserDays.computeIfAbsent(date, d -> new Day());
+    }
+
+    // Every quantum the interval touches
+    private static long[] outer(LocalTime start, LocalTime end) {
+        return mask(floorQuantum(start), ceilQuantum(end));
+    }
+
+    // Only the quanta the interval covers completely
+    private static long[] inner(LocalTime start, LocalTime end) {
+        return mask(ceilQuantum(start), floorQuantum(end));
+    }
+
+    private static int floorQuantum(LocalTime time) {
+        return time.toSecondOfDay() / QUANTUM_SECONDS;
+    }
+
+    private static int ceilQuantum(LocalTime time) {
+        return (time.toSecondOfDay() + QUANTUM_SECONDS - 1) / QUANTUM_SECONDS;
+    }
+
+    private static LocalTime timeOf(int quantum) {
+        return LocalTime.ofSecondOfDay((long) quantum * QUANTUM_SECONDS);
+    }
+
+    private static long[] mask(int from, int to) {
+        long[] words = new long[WORDS];
+        for (int w = 0; w < WORDS; w++) {
+            int lo = Math.max(from, w * 64) - w * 64;
+            int hi = Math.min(to, w * 64 + 64) - w * 64;
+            if (lo < hi) {
+                long upTo = hi == 64 ? -1L : (1L << hi) - 1;
+                words[w] = upTo & (-1L << lo);
+            }
+        }
+        return words;
+    }
+
+    private static boolean intersects(long[] a, long[] b) {
+        for (int w = 0; w < WORDS; w++) {
+            if ((a[w] & b[w]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // First clear bit in [from, limit), or limit
+    private static int nextClear(long[] bits, int from, int limit) {
+        return nextBit(bits, from, limit, true);
+    }
+
+    // First set bit in [from, limit), or limit
+    private static int nextSet(long[] bits, int from, int limit) {
+        return nextBit(bits, from, limit, false);
+    }
+
+    private static int nextBit(long[] bits, int from, int limit, boolean clear) {
+        int w = from >>> 6;
+        if (from >= limit || w >= WORDS) {
+            return limit;
+        }
+        long word = (clear ? ~bits[w] : bits[w]) & (-1L << (from & 63));
+        while (true) {
+            if (word != 0) {
+                return Math.min(limit, w * 64 + Long.numberOfTrailingZeros(word));
+            }
+            if (++w >= WORDS || w * 64 >= limit) {
+                return limit;
+            }
+            word = clear ? ~bits[w] : bits[w];
+        }
+    }
+
+    private static final class Day {
+
+        private final long[] committed = new long[WORDS];
+        private final long[] pending = new long[WORDS];
+
+        synchronized Reservation reserve(long[] range, boolean confirmed) {
+            if (intersects(pending, range)) {
+                return Reservation.BUSY;
+            }
+            if (!confirmed && intersects(committed, range)) {
+                return Reservation.CHECK;
+            }
+            for (int w = 0; w < WORDS; w++) {
+                pending[w] |= range[w];
+            }
+            return Reservation.RESERVED;
+        }
+
+        synchronized void commitPending(long[] range) {
+            for (int w = 0; w < WORDS; w++) {
+                pending[w] &= ~range[w];
+                committed[w] |= range[w];
+            }
+        }
+
+        synchronized void dropPending(long[] range) {
+            for (int w = 0; w < WORDS; w++) {
+                pending[w] &= ~range[w];
+            }
+        }
+
+        synchronized void commit(long[] range) {
+            for (int w = 0; w < WORDS; w++) {
+                committed[w] |= range[w];
+            }
+        }
+
+        synchronized void uncommit(long[] range) {
+            for (int w = 0; w < WORDS; w++) {
+                committed[w] &= ~range[w];
+            }
+        }
+
+        synchronized long[] occupied() {
+            long[] bits = new long[WORDS];
+            for (int w = 0; w < WORDS; w++) {
+                bits[w] = committed[w] | pending[w];
+            }
+            return bits;
+        }
+    }
+}
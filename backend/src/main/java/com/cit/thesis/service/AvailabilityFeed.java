@@ -0,0 +1,300 @@
+package com.cit.thesis.service;
+
+import com.cit.thesis.dto.AvailabilityEvent;
+import com.cit.thesis.dto.ScheduleDto;
+import com.cit.thesis.transaction.AfterCommit;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Server-sent event hub for slot availability changes.
+ *
+ * Services publish after their transaction commits. Each subscriber has a
+ * bounded queue drained by a small shared sender pool; a subscriber whose
+ * queue overflows is disconnected (it can reconnect and resume) rather
+ * than buffered without limit. The last events are kept so a reconnecting
+ * client can resume from its Last-Event-ID; if that is no longer possible
+ * it gets a {@code reset} event and should reload /api/schedules/available.
+ *
+ * Event IDs are {@code <epoch>-<sequence>}, where the epoch changes on
+ * every restart, so IDs from a previous process are never resumed.
+ */
+@Component
+public class AvailabilityFeed {
+
+    private static final Object HEARTBEAT = new Object();
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Deque<Event> history = new ArrayDeque<>();
+    private long sequence;
+
+    private final int historySize;
+    private final int queueCapacity;
+    private final int maxSubscribers;
+    private final long timeoutMillis;
+    private final ExecutorService senders;
+    private final ScheduledExecutorService heartbeats;
+    private final Counter dropped;
+
+    public AvailabilityFeed(MeterRegistry meterRegistry,
+            @Value("${app.feed.history-size:512}") int historySize,
+            @Value("${app.feed.queue-capacity:64}") int queueCapacity,
+            @Value("${app.feed.max-subscribers:1000}") int maxSubscribers,
+            @Value("${app.feed.sender-threads:4}") int senderThreads,
+            @Value("${app.feed.timeout:PT30M}") Duration timeout,
+            @Value("${app.feed.heartbeat:PT20S}") Duration heartbeat) {
+        this.historySize = historySize;
+        this.queueCapacity = queueCapacity;
+        this.maxSubscribers = maxSubscribers;
+        this.timeoutMillis = timeout.toMillis();
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "availability-feed-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "availability-feed-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeats.scheduleAtFixedRate(this::heartbeat, heartbeat.toMillis(), heartbeat.toMillis(),
+                TimeUnit.MILLISECONDS);
+
+        Gauge.builder("app.feed.subscribers", subscribers, Set::size)
+                .description("Connected availability feed subscribers")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("app.feed.dropped")
+                .description("Subscribers disconnected because they fell behind")
+                .register(meterRegistry);
+    }
+
+    public void slotCreated(ScheduleDto slot) {
+        publishAfterCommit(
+                new AvailabilityEvent(AvailabilityEvent.SLOT_CREATED, slot.getId(), slot.getAdviserId(), slot));
+    }
+
+    // Small batches go out slot by slot; a large one would overflow subscriber queues,
+    // so it becomes a single event telling clients to reload that adviser's slots
+    public void slotsCreated(Long adviserId, List<ScheduleDto> slots) {
+        if (slots.size() <= queueCapacity / 4) {
+            slots.forEach(this::slotCreated);
+        } else if (!slots.isEmpty()) {
+            publishAfterCommit(new AvailabilityEvent(AvailabilityEvent.SLOTS_CREATED, null, adviserId, null));
+        }
+    }
+
+    public void slotReleased(ScheduleDto slot) {
+        publishAfterCommit(
+                new AvailabilityEvent(AvailabilityEvent.SLOT_RELEASED, slot.getId(), slot.getAdviserId(), slot));
+    }
+
+    public void slotBooked(Long scheduleId, Long adviserId) {
+        publishAfterCommit(new AvailabilityEvent(AvailabilityEvent.SLOT_BOOKED, scheduleId, adviserId, null));
+    }
+
+    public void slotDeleted(Long scheduleId, Long adviserId) {
+        publishAfterCommit(new AvailabilityEvent(AvailabilityEvent.SLOT_DELETED, scheduleId, adviserId, null));
+    }
+
+    /**
+     * Opens a stream of events, optionally limited to one adviser, replaying
+     * what the client missed since {@code lastEventId}.
+     *
+     * @throws IllegalStateException when the subscriber limit is reached
+     */
+    public SseEmitter subscribe(Long adviserId, String lastEventId) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new IllegalStateException("Too many subscribers");
+        }
+
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, adviserId);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+
+        // Replay and registration under the publish lock, so nothing is missed or sent twice
+        synchronized (this) {
+            if (lastEventId != null && !lastEventId.isBlank()) {
+                List<Event> missed = missedSince(lastEventId, adviserId);
+                if (missed == null || missed.size() > queueCapacity) {
+                    subscriber.offer(new Event(null, new AvailabilityEvent(AvailabilityEvent.RESET, null, null, null)));
+                } else {
+                    missed.forEach(subscriber::offer);
+                }
+            }
+            subscribers.add(subscriber);
+        }
+        return emitter;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        heartbeats.shutdownNow();
+        senders.shutdownNow();
+        subscribers.forEach(s -> s.emitter.complete());
+    }
+
+    private synchronized void publish(AvailabilityEvent payload) {
+        Event event = new Event(epoch + "-" + (++sequence), payload);
+        history.addLast(event);
+        if (history.size() > historySize) {
+            history.removeFirst();
+        }
+
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.wants(payload) && !subscriber.offer(event)) {
+                disconnect(subscriber);
+            }
+        }
+    }
+
+    // Null when the ID is from another process or older than the retained history
+    private List<Event> missedSince(String lastEventId, Long adviserId) {
+        int dash = lastEventId.lastIndexOf('-');
+        if (dash < 0 || !lastEventId.substring(0, dash).equals(epoch)) {
+            return null;
+        }
+
+        long lastSeq;
+        try {
+            lastSeq = Long.parseLong(lastEventId.substring(dash + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+
+        long oldest = history.isEmpty() ? sequence + 1 : sequenceOf(history.peekFirst());
+        if (lastSeq < oldest - 1 || lastSeq > sequence) {
+            return null;
+        }
+
+        List<Event> missed = new ArrayList<>();
+        for (Event event : history) {
+            if (sequenceOf(event) > lastSeq
+                    && (adviserId == null || adviserId.equals(event.payload.adviserId()))) {
+                missed.add(event);
+            }
+        }
+        return missed;
+    }
+
+    private long sequenceOf(Event event) {
+        return Long.parseLong(event.id.substring(event.id.lastIndexOf('-') + 1));
+    }
+
+    private void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            if (!subscriber.offer(HEARTBEAT)) {
+                disconnect(subscriber);
+            }
+        }
+    }
+
+    private void disconnect(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            dropped.increment();
+            subscriber.emitter.complete();
+        }
+    }
+
+    private void publishAfterCommit(AvailabilityEvent event) {
+        AfterCommit.run(() -> publish(event));
+    }
+
+    private record Event(String id, AvailabilityEvent payload) {
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Long adviserId;
+        private final BlockingQueue<Object> queue = new ArrayBlockingQueue<>(queueCapacity);
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        Subscriber(SseEmitter emitter, Long adviserId) {
+            this.emitter = emitter;
+            this.adviserId = adviserId;
+        }
+
+        boolean wants(AvailabilityEvent event) {
+            return adviserId == null || adviserId.equals(event.adviserId());
+        }
+
+        boolean offer(Object item) {
+            if (!queue.offer(item)) {
+                return false;
+            }
+            scheduleDrain();
+            return true;
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                Object item;
+                while ((item = queue.poll()) != null) {
+                    send(item);
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client went away; the emitter callbacks remove the subscriber
+                subscribers.remove(this);
+                queue.clear();
+                return;
+            } finally {
+                draining.set(false);
+            }
+
+            // An offer may have slipped in between the last poll and the flag reset
+            if (!queue.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+
+        private void send(Object item) throws IOException {
+            if (item == HEARTBEAT) {
+                emitter.send(SseEmitter.event().comment("keepalive"));
+                return;
+            }
+
+            Event event = (Event) item;
+            SseEmitter.SseEventBuilder builder = SseEmitter.event()
+                    .name(event.payload.type())
+                    .data(event.payload, MediaType.APPLICATION_JSON);
+            if (event.id != null) {
+                builder.id(event.id);
+            }
+            emitter.send(builder);
+        }
+    }
+}
@@ -2,102 +2,135 @@ package com.cit.thesis.service;
 
 import com.cit.thesis.dto.BookConsultationRequest;
 import com.cit.thesis.dto.ConsultationDto;
+import com.cit.thesis.dto.FieldSelection;
+import com.cit.thesis.dto.ScheduleDto;
 import com.cit.thesis.model.Consultation;
 import com.cit.thesis.model.ConsultationStatus;
+import com.cit.thesis.model.ConsultationSummary;
 import com.cit.thesis.model.Schedule;
 import com.cit.thesis.model.User;
 import com.cit.thesis.repository.ConsultationRepository;
 import com.cit.thesis.repository.ScheduleRepository;
-import com.cit.thesis.repository.UserRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import com.cit.thesis.dto.PageCursor;
 import com.cit.thesis.dto.PagedResponse;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class ConsultationService {
 
+        // DTO fields backed by TEXT columns; list queries skip them unless one is selected
+        private static final Set<String> TEXT_FIELDS = Set.of("description", "adviserNotes", "rejectionReason");
+
         private final ConsultationRepository consultationRepository;
         private final ScheduleRepository scheduleRepository;
-        private final UserRepository userRepository;
+        private final UserDirectory userDirectory;
+        private final OpenSlotIndex openSlotIndex;
+        private final AvailabilityFeed availabilityFeed;
+        private final ContentVersions contentVersions;
 
         public ConsultationService(ConsultationRepository consultationRepository,
                         ScheduleRepository scheduleRepository,
-                        UserRepository userRepository) {
+                        UserDirectory userDirectory,
+                        OpenSlotIndex openSlotIndex,
+                        AvailabilityFeed availabilityFeed,
+                        ContentVersions contentVersions) {
                 this.consultationRepository = consultationRepository;
                 this.scheduleRepository = scheduleRepository;
-                this.userRepository = userRepository;
+                this.userDirectory = userDirectory;
+                this.openSlotIndex = openSlotIndex;
+                this.availabilityFeed = availabilityFeed;
+                this.contentVersions = contentVersions;
         }
 
+        @Transactional(readOnly = true)
         public List<ConsultationDto> getMyConsultations(String email) {
-                User user = userRepository.findByEmail(email)
+                User user = userDirectory.findByEmail(email)
                                 .orElseThrow(() -> new RuntimeException("User not found"));
 
                 List<Consultation> consultations = consultationRepository
                                 .findByStudentIdOrderByScheduledDateDesc(user.getId());
 
-                return consultations.stream()
-                                .map(this::mapToDto)
-                                .collect(Collectors.toList());
+                return mapToDtos(consultations);
         }
 
-        public List<ConsultationDto> getUpcomingConsultations(String email) {
-                User user = userRepository.findByEmail(email)
+        @Transactional(readOnly = true)
+        public List<ConsultationDto> getUpcomingConsultations(String email, FieldSelection fields) {
+                User user = userDirectory.findByEmail(email)
                                 .orElseThrow(() -> new RuntimeException("User not found"));
 
                 LocalDate today = LocalDate.now();
-                List<Consultation> consultations = consultationRepository
-                                .findUpcomingConsultationsFromDate(user.getId(), today);
+                List<? extends ConsultationSummary> consultations = consultationRepository
+                                .findByStudentIdAndScheduledDateGreaterThanEqualOrderByScheduledDateAsc(user.getId(),
+                                                today, rowType(fields));
 
-                return consultations.stream()
-                                .map(this::mapToDto)
-                                .collect(Collectors.toList());
+                return mapToDtos(consultations);
         }
 
-        public List<ConsultationDto> getPastConsultations(String email) {
-                User user = userRepository.findByEmail(email)
+        @Transactional(readOnly = true)
+        public List<ConsultationDto> getPastConsultations(String email, FieldSelection fields) {
+                User user = userDirectory.findByEmail(email)
                                 .orElseThrow(() -> new RuntimeException("User not found"));
 
                 LocalDate today = LocalDate.now();
-                List<Consultation> consultations = consultationRepository
-                                .findByStudentIdAndScheduledDateBeforeOrderByScheduledDateDesc(user.getId(), today);
+                List<? extends ConsultationSummary> consultations = consultationRepository
+                                .findByStudentIdAndScheduledDateBeforeOrderByScheduledDateDesc(user.getId(), today,
+                                                rowType(fields));
 
-                return consultations.stream()
-                                .map(this::mapToDto)
-                                .collect(Collectors.toList());
+                return mapToDtos(consultations);
         }
 
-        public PagedResponse<ConsultationDto> getMyConsultations(String email, int page, int size) {
-                User user = userRepository.findByEmail(email)
+        @Transactional(readOnly = true)
+        public PagedResponse<ConsultationDto> getMyConsultations(String email, String cursor, int size,
+                        boolean includeTotal, FieldSelection fields) {
+                User user = userDirectory.findByEmail(email)
                                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-                Pageable pageable = PageRequest.of(page, size);
-                Page<Consultation> consultationPage = consultationRepository
-                                .findByStudentIdOrderByScheduledDateDesc(user.getId(), pageable);
+                PageCursor after = PageCursor.decode(cursor);
+                // Fetch one extra row to learn whether another page follows, without a COUNT
+                Pageable limit = PageRequest.of(0, size + 1);
+                boolean full = fields.includesAny(TEXT_FIELDS);
+                List<? extends ConsultationSummary> consultations;
+                if (after == null) {
+                        consultations = consultationRepository.findByStudentIdOrderByScheduledDateDescIdDesc(
+                                        user.getId(), limit, rowType(fields));
+                } else if (full) {
+                        consultations = consultationRepository.findStudentPageAfter(user.getId(), after.date(),
+                                        after.id(), limit);
+                } else {
+                        consultations = consultationRepository.findStudentRowPageAfter(user.getId(), after.date(),
+                                        after.id(), limit);
+                }
 
-                List<ConsultationDto> dtos = consultationPage.getContent().stream()
-                                .map(this::mapToDto)
-                                .collect(Collectors.toList());
+                String nextCursor = null;
+                if (consultations.size() > size) {
+                        consultations = consultations.subList(0, size);
+                        ConsultationSummary last = consultations.get(size - 1);
+                        nextCursor = new PageCursor(last.getScheduledDate(), last.getId()).encode();
+                }
 
-                return new PagedResponse<>(
-                                dtos,
-                                consultationPage.getNumber(),
-                                consultationPage.getTotalPages(),
-                                consultationPage.getTotalElements(),
-                                consultationPage.getSize(),
-                                consultationPage.isFirst(),
-                                consultationPage.isLast());
+                Long total = includeTotal ? consultationRepository.countByStudentId(user.getId()) : null;
+
+                return new PagedResponse<>(mapToDtos(consultations), size, after == null, nextCursor, total);
         }
 
         @Transactional
         public ConsultationDto bookConsultation(BookConsultationRequest request, String email) {
-                User student = userRepository.findByEmail(email)
+                User student = userDirectory.findByEmail(email)
                                 .orElseThrow(() -> new RuntimeException("User not found"));
 
                 if (student.getTeamCode() == null || student.getTeamCode().isBlank()) {
@@ -108,12 +141,18 @@ public class ConsultationService {
                                 .orElseThrow(() -> new RuntimeException("Schedule not found"));
 
                 if (schedule.getIsBooked()) {
-                        throw new RuntimeException("This time slot is already booked");
+                        throw new IllegalStateException("This time slot is already booked");
                 }
 
-                User adviser = userRepository.findById(schedule.getAdviserId())
+                User adviser = userDirectory.findById(schedule.getAdviserId())
                                 .orElseThrow(() -> new RuntimeException("Adviser not found"));
 
+                // Claim the slot with a single conditional update; when several students race
+                // for the same slot only one update matches, the rest see zero affected rows
+                if (scheduleRepository.claimSlot(schedule.getId()) == 0) {
+                        throw new IllegalStateException("This time slot is already booked");
+                }
+
                 Consultation consultation = new Consultation();
                 consultation.setStudentId(student.getId());
                 consultation.setTeamCode(student.getTeamCode());
@@ -127,9 +166,10 @@ public class ConsultationService {
                 consultation.setStatus(ConsultationStatus.PENDING);
 
                 consultation = consultationRepository.save(consultation);
-
-                schedule.setIsBooked(true);
-                scheduleRepository.save(schedule);
+                openSlotIndex.slotClosed(schedule.getId());
+                availabilityFeed.slotBooked(schedule.getId(), schedule.getAdviserId());
+                contentVersions.availabilityChanged();
+                contentVersions.usersChanged(student.getId(), adviser.getId());
 
                 return mapToDto(consultation);
 
@@ -137,7 +177,7 @@ public class ConsultationService {
 
         @Transactional
         public void cancelConsultation(Long consultationId, String email) {
-                User user = userRepository.findByEmail(email)
+                User user = userDirectory.findByEmail(email)
                                 .orElseThrow(() -> new RuntimeException("User not found"));
 
                 Consultation consultation = consultationRepository.findById(consultationId)
@@ -165,19 +205,16 @@ public class ConsultationService {
                         throw new IllegalStateException("Cannot cancel consultation on the same day or past dates");
                 }
 
-                Schedule schedule = scheduleRepository.findById(consultation.getScheduleId())
-                                .orElse(null);
-                if (schedule != null) {
-                        schedule.setIsBooked(false);
-                        scheduleRepository.save(schedule);
-                }
+                releaseSlot(consultation);
 
                 consultation.setStatus(ConsultationStatus.CANCELLED);
                 consultationRepository.save(consultation);
+                contentVersions.usersChanged(consultation.getStudentId(), consultation.getAdviserId());
         }
 
+        @Transactional(readOnly = true)
         public ConsultationDto getConsultationDetails(Long consultationId, String email) {
-                User user = userRepository.findByEmail(email)
+                User user = userDirectory.findByEmail(email)
                                 .orElseThrow(() -> new RuntimeException("User not found"));
 
                 Consultation consultation = consultationRepository.findById(consultationId)
@@ -192,23 +229,44 @@ public class ConsultationService {
         }
 
         // Get pending consultations for adviser
-        public List<ConsultationDto> getPendingConsultationsForAdviser(String email) {
-                User adviser = userRepository.findByEmail(email)
+        @Transactional(readOnly = true)
+        public List<ConsultationDto> getPendingConsultationsForAdviser(String email, FieldSelection fields) {
+                User adviser = userDirectory.findByEmail(email)
                                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-                List<Consultation> consultations = consultationRepository
-                                .findByAdviserIdOrderByScheduledDateDesc(adviser.getId());
+                List<? extends ConsultationSummary> consultations = consultationRepository
+                                .findByAdviserIdAndStatusOrderByScheduledDateDesc(adviser.getId(),
+                                                ConsultationStatus.PENDING, rowType(fields));
 
-                return consultations.stream()
-                                .filter(c -> c.getStatus() == ConsultationStatus.PENDING)
-                                .map(this::mapToDto)
-                                .collect(Collectors.toList());
+                return mapToDtos(consultations);
+        }
+
+        @Transactional(readOnly = true)
+        public PagedResponse<ConsultationDto> getPendingConsultationsForAdviser(String email, int page, int size,
+                        FieldSelection fields) {
+                User adviser = userDirectory.findByEmail(email)
+                                .orElseThrow(() -> new RuntimeException("User not found"));
+
+                Pageable pageable = PageRequest.of(page, size,
+                                Sort.by(Sort.Direction.DESC, "scheduledDate").and(Sort.by(Sort.Direction.DESC, "id")));
+                Page<? extends ConsultationSummary> consultationPage = consultationRepository
+                                .findByAdviserIdAndStatus(adviser.getId(), ConsultationStatus.PENDING, pageable,
+                                                rowType(fields));
+
+                return new PagedResponse<>(
+                                mapToDtos(consultationPage.getContent()),
+                                consultationPage.getNumber(),
+                                consultationPage.getTotalPages(),
+                                consultationPage.getTotalElements(),
+                                consultationPage.getSize(),
+                                consultationPage.isFirst(),
+                                consultationPage.isLast());
         }
 
         // Approve consultation
         @Transactional
         public ConsultationDto approveConsultation(Long consultationId, String email) {
-                User adviser = userRepository.findByEmail(email)
+                User adviser = userDirectory.findByEmail(email)
                                 .orElseThrow(() -> new RuntimeException("User not found"));
 
                 Consultation consultation = consultationRepository.findById(consultationId)
@@ -224,6 +282,7 @@ public class ConsultationService {
 
                 consultation.setStatus(ConsultationStatus.APPROVED);
                 consultation = consultationRepository.save(consultation);
+                contentVersions.usersChanged(consultation.getStudentId(), consultation.getAdviserId());
 
                 return mapToDto(consultation);
         }
@@ -231,7 +290,7 @@ public class ConsultationService {
         // Reject consultation
         @Transactional
         public ConsultationDto rejectConsultation(Long consultationId, String rejectionReason, String email) {
-                User adviser = userRepository.findByEmail(email)
+                User adviser = userDirectory.findByEmail(email)
                                 .orElseThrow(() -> new RuntimeException("User not found"));
 
                 Consultation consultation = consultationRepository.findById(consultationId)
@@ -246,23 +305,19 @@ public class ConsultationService {
                 }
 
                 // Free up the schedule slot
-                Schedule schedule = scheduleRepository.findById(consultation.getScheduleId())
-                                .orElse(null);
-                if (schedule != null) {
-                        schedule.setIsBooked(false);
-                        scheduleRepository.save(schedule);
-                }
+                releaseSlot(consultation);
 
                 consultation.setStatus(ConsultationStatus.REJECTED);
                 consultation.setRejectionReason(rejectionReason);
                 consultation = consultationRepository.save(consultation);
+                contentVersions.usersChanged(consultation.getStudentId(), consultation.getAdviserId());
 
                 return mapToDto(consultation);
         }
 
         @Transactional
         public ConsultationDto addConsultationNotes(Long consultationId, String notes, String email) {
-                User adviser = userRepository.findByEmail(email)
+                User adviser = userDirectory.findByEmail(email)
                                 .orElseThrow(() -> new RuntimeException("User not found"));
 
                 Consultation consultation = consultationRepository.findById(consultationId)
@@ -281,13 +336,67 @@ public class ConsultationService {
                 }
 
                 consultation = consultationRepository.save(consultation);
+                contentVersions.usersChanged(consultation.getStudentId(), consultation.getAdviserId());
 
                 return mapToDto(consultation);
         }
 
+        // Marks the consultation's slot free again, puts it back into the open-slot index and announces it
+        private void releaseSlot(Consultation consultation) {
+                if (scheduleRepository.releaseSlot(consultation.getScheduleId()) == 0) {
+                        return;
+                }
+
+                String adviserName = userDirectory.findById(consultation.getAdviserId())
+                                .map(User::getName)
+                                .orElse("Unknown");
+
+                ScheduleDto slot = new ScheduleDto(
+                                consultation.getScheduleId(),
+                                consultation.getAdviserId(),
+                                adviserName,
+                                consultation.getScheduledDate(),
+                                consultation.getStartTime(),
+                                consultation.getScheduledEnd(),
+                                false);
+
+                openSlotIndex.slotOpened(slot);
+                availabilityFeed.slotReleased(slot);
+                contentVersions.availabilityChanged();
+        }
+
         private ConsultationDto mapToDto(Consultation consultation) {
-                User student = userRepository.findById(consultation.getStudentId()).orElse(null);
-                User adviser = userRepository.findById(consultation.getAdviserId()).orElse(null);
+                return mapToDtos(List.of(consultation)).get(0);
+        }
+
+        // Entities when a TEXT column is wanted, otherwise lean rows without those columns
+        private static Class<? extends ConsultationSummary> rowType(FieldSelection fields) {
+                return fields.includesAny(TEXT_FIELDS) ? Consultation.class : ConsultationRepository.ListRow.class;
+        }
+
+        // Resolves every referenced student and adviser with a single query
+        private List<ConsultationDto> mapToDtos(List<? extends ConsultationSummary> consultations) {
+                if (consultations.isEmpty()) {
+                        return new ArrayList<>();
+                }
+
+                Set<Long> userIds = new HashSet<>();
+                for (ConsultationSummary consultation : consultations) {
+                        userIds.add(consultation.getStudentId());
+                        userIds.add(consultation.getAdviserId());
+                }
+
+                Map<Long, User> users = userDirectory.findAllById(userIds).stream()
+                                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+                return consultations.stream()
+                                .map(c -> mapToDto(c, users))
+                                .collect(Collectors.toList());
+        }
+
+        private ConsultationDto mapToDto(ConsultationSummary consultation, Map<Long, User> users) {
+                User student = users.get(consultation.getStudentId());
+                User adviser = users.get(consultation.getAdviserId());
 
                 ConsultationDto dto = new ConsultationDto(
                                 consultation.getId(),
@@ -297,35 +406,61 @@ public class ConsultationService {
                                 consultation.getAdviserId(),
                                 adviser != null ? adviser.getName() : "Unknown",
                                 consultation.getTopic(),
-                                consultation.getDescription(),
+                                null,
                                 consultation.getScheduledDate(),
                                 consultation.getStartTime(),
                                 consultation.getScheduledEnd(),
                                 consultation.getStatus().name(),
-                                consultation.getAdviserNotes(),
-                                consultation.getRejectionReason());
+                                null,
+                                null);
+
+                // Lean list rows don't carry the TEXT columns
+                if (consultation instanceof Consultation full) {
+                        dto.setDescription(full.getDescription());
+                        dto.setAdviserNotes(full.getAdviserNotes());
+                        dto.setRejectionReason(full.getRejectionReason());
+                }
 
-                // Set picture URLs
+                // Set picture URLs (lists should prefer the small thumbnail when present)
                 if (student != null) {
                         dto.setStudentPictureUrl(student.getPictureUrl());
+                        dto.setStudentThumbnailUrl(student.getThumbnailSmallUrl());
                 }
                 if (adviser != null) {
                         dto.setAdviserPictureUrl(adviser.getPictureUrl());
+                        dto.setAdviserThumbnailUrl(adviser.getThumbnailSmallUrl());
                 }
 
                 return dto;
         }
 
-        public List<ConsultationDto> getConsultationsForAdviser(String email) {
-                User adviser = userRepository.findByEmail(email)
+        // Lean rows for the adviser dashboard; cancelled and rejected consultations are left out
+        @Transactional(readOnly = true)
+        public List<ConsultationDto> getActiveConsultationsForAdviser(Long adviserId, LocalDate from, LocalDate to) {
+                List<ConsultationRepository.ListRow> consultations = consultationRepository
+                                .findByAdviserIdAndScheduledDateBetweenAndStatusInOrderByScheduledDateAscStartTimeAsc(
+                                                adviserId, from, to,
+                                                EnumSet.of(ConsultationStatus.PENDING, ConsultationStatus.APPROVED,
+                                                                ConsultationStatus.COMPLETED),
+                                                ConsultationRepository.ListRow.class);
+
+                return mapToDtos(consultations);
+        }
+
+        @Transactional(readOnly = true)
+        public long countPendingForAdviser(Long adviserId) {
+                return consultationRepository.countByAdviserIdAndStatus(adviserId, ConsultationStatus.PENDING);
+        }
+
+        @Transactional(readOnly = true)
+        public List<ConsultationDto> getConsultationsForAdviser(String email, FieldSelection fields) {
+                User adviser = userDirectory.findByEmail(email)
                                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-                List<Consultation> consultations = consultationRepository
-                                .findByAdviserIdOrderByScheduledDateDesc(adviser.getId());
+                List<? extends ConsultationSummary> consultations = consultationRepository
+                                .findByAdviserIdOrderByScheduledDateDesc(adviser.getId(), rowType(fields));
 
-                return consultations.stream()
-                                .map(this::mapToDto)
-                                .collect(Collectors.toList());
+                return mapToDtos(consultations);
         }
 
 }
\ No newline at end of file
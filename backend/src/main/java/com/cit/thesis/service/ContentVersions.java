@@ -0,0 +1,77 @@
+package com.cit.thesis.service;
+
+import com.cit.thesis.datasource.ReadYourWrites;
+import com.cit.thesis.model.User;
+import com.cit.thesis.transaction.AfterCommit;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version counters behind the ETags of the polled list endpoints: one for
+ * the open-slot list and one per user (student or adviser) for their own
+ * consultations and schedules.
+ *
+ * The services that change those lists bump the counters after commit.
+ * A tag also contains the user directory version, since the lists embed
+ * names and pictures, and the current date, since they are filtered by
+ * it. Counters start over on restart, so every tag carries a per-process
+ * epoch as well.
+ *
+ * Controllers must take the tag before loading the data: a change that
+ * commits in between then yields a newer tag on the next poll instead of
+ * a stale body under the new tag. For the same reason, users whose
+ * counters change read from the primary for the {@link ReadYourWrites}
+ * window when a read replica is in use.
+ */
+@Component
+public class ContentVersions {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong availability = new AtomicLong();
+    private final Map<Long, AtomicLong> users = new ConcurrentHashMap<>();
+
+    private final UserDirectory userDirectory;
+    private final ReadYourWrites readYourWrites;
+
+    public ContentVersions(UserDirectory userDirectory, ReadYourWrites readYourWrites) {
+        this.userDirectory = userDirectory;
+        this.readYourWrites = readYourWrites;
+    }
+
+    public String availabilityTag() {
+        return tag("a" + availability.get());
+    }
+
+    public String userTag(String email) {
+        User user = userDirectory.findByEmail(email)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        AtomicLong version = users.get(user.getId());
+        return tag("u" + user.getId() + "." + (version != null ? version.get() : 0));
+    }
+
+    public void availabilityChanged() {
+        AfterCommit.run(availability::incrementAndGet);
+    }
+
+    public void usersChanged(Long... userIds) {
+        if (!readYourWrites.window().isZero()) {
+            for (Long userId : userIds) {
+                userDirectory.findById(userId).ifPresent(user -> readYourWrites.userWrites(user.getEmail()));
+            }
+        }
+        AfterCommit.run(() -> {
+            for (Long userId : userIds) {
+                users.computeIfAbsent(userId, id -> new AtomicLong()).incrementAndGet();
+            }
+        });
+    }
+
+    private String tag(String version) {
+        return epoch + "-" + version + "-d" + userDirectory.version() + "-" + LocalDate.now().toEpochDay();
+    }
+}
@@ -0,0 +1,12 @@
+package com.cit.thesis.service;
+
+/**
+ * Thrown when a refresh token is unknown, expired, revoked or replayed;
+ * the client has to sign in again.
+ */
+public class InvalidRefreshTokenException extends RuntimeException {
+
+    public InvalidRefreshTokenException(String message) {
+        super(message);
+    }
+}
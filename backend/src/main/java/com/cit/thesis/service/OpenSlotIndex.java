@@ -0,0 +1,126 @@
+package com.cit.thesis.service;
+
+import com.cit.thesis.dto.ScheduleDto;
+import com.cit.thesis.transaction.AfterCommit;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-memory index of unbooked schedule slots, ordered by date and start
+ * time and grouped by adviser.
+ *
+ * ScheduleService loads it once at startup; afterwards it is maintained
+ * incrementally by the methods that open or close slots. Changes are
+ * applied after the surrounding transaction commits, so a rolled back
+ * booking never shows up here. Reads are lock-free; writes are serialized
+ * and also drop the slots of past days, which reads already skip.
+ */
+@Component
+public class OpenSlotIndex {
+
+    private static final Comparator<SlotKey> ORDER = Comparator
+            .comparing(SlotKey::date)
+            .thenComparing(SlotKey::startTime)
+            .thenComparing(SlotKey::id);
+
+    private final ConcurrentSkipListMap<SlotKey, ScheduleDto> slots = new ConcurrentSkipListMap<>(ORDER);
+    private final Map<Long, ConcurrentSkipListMap<SlotKey, ScheduleDto>> slotsByAdviser = new ConcurrentHashMap<>();
+    private final Map<Long, SlotKey> keysById = new ConcurrentHashMap<>();
+
+    public synchronized void load(Collection<ScheduleDto> openSlots) {
+        slots.clear();
+        slotsByAdviser.clear();
+        keysById.clear();
+        openSlots.forEach(this::put);
+    }
+
+    public List<ScheduleDto> getAvailable(LocalDate from) {
+        return new ArrayList<>(slots.tailMap(lowerBound(from)).values());
+    }
+
+    public List<ScheduleDto> getAvailableForAdviser(Long adviserId, LocalDate from) {
+        NavigableMap<SlotKey, ScheduleDto> adviserSlots = slotsByAdviser.get(adviserId);
+        if (adviserSlots == null) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(adviserSlots.tailMap(lowerBound(from)).values());
+    }
+
+    public void slotOpened(ScheduleDto slot) {
+        AfterCommit.run(() -> put(slot));
+    }
+
+    public void slotClosed(Long scheduleId) {
+        AfterCommit.run(() -> remove(scheduleId));
+    }
+
+    public void adviserRenamed(Long adviserId, String name) {
+        AfterCommit.run(() -> rename(adviserId, name));
+    }
+
+    private synchronized void put(ScheduleDto slot) {
+        pruneBefore(LocalDate.now());
+        remove(slot.getId());
+
+        SlotKey key = new SlotKey(slot.getAvailableDate(), slot.getStartTime(), slot.getId());
+        slots.put(key, slot);
+        slotsByAdviser.computeIfAbsent(slot.getAdviserId(), id -> new ConcurrentSkipListMap<>(ORDER))
+                .put(key, slot);
+        keysById.put(slot.getId(), key);
+    }
+
+    private synchronized void remove(Long scheduleId) {
+        SlotKey key = keysById.remove(scheduleId);
+        if (key == null) {
+            return;
+        }
+
+        ScheduleDto slot = slots.remove(key);
+        if (slot != null) {
+            NavigableMap<SlotKey, ScheduleDto> adviserSlots = slotsByAdviser.get(slot.getAdviserId());
+            if (adviserSlots != null) {
+                adviserSlots.remove(key);
+            }
+        }
+    }
+
+    private synchronized void rename(Long adviserId, String name) {
+        NavigableMap<SlotKey, ScheduleDto> adviserSlots = slotsByAdviser.get(adviserId);
+        if (adviserSlots == null) {
+            return;
+        }
+
+        // Entries are shared with readers, so replace them instead of mutating
+        for (ScheduleDto slot : new ArrayList<>(adviserSlots.values())) {
+            put(new ScheduleDto(slot.getId(), slot.getAdviserId(), name, slot.getAvailableDate(),
+                    slot.getStartTime(), slot.getEndTime(), slot.getIsBooked()));
+        }
+    }
+
+    // Called with the lock held
+    private void pruneBefore(LocalDate date) {
+        if (slots.isEmpty() || !slots.firstKey().date().isBefore(date)) {
+            return;
+        }
+        for (SlotKey key : new ArrayList<>(slots.headMap(lowerBound(date)).keySet())) {
+            remove(key.id());
+        }
+    }
+
+    private static SlotKey lowerBound(LocalDate date) {
+        return new SlotKey(date, LocalTime.MIN, Long.MIN_VALUE);
+    }
+
+    private record SlotKey(LocalDate date, LocalTime startTime, Long id) {
+    }
+}
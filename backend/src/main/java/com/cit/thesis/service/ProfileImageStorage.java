@@ -0,0 +1,195 @@
+package com.cit.thesis.service;
+
+import jakarta.annotation.PreDestroy;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okio.BufferedSink;
+import okio.Okio;
+import okio.Source;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Uploads profile images to Supabase Storage through one shared, pooled
+ * HTTP client.
+ *
+ * Request bodies are streamed from the multipart part instead of being
+ * copied onto the heap first. Asynchronous uploads first move the part to
+ * a temp file we own, because the servlet container deletes its copy as
+ * soon as the request completes.
+ */
+@Component
+public class ProfileImageStorage {
+
+    private final OkHttpClient client;
+    private final String supabaseUrl;
+    private final String supabaseAnonKey;
+    private final String storageBucket;
+
+    public ProfileImageStorage(@Value("${supabase.url}") String supabaseUrl,
+            @Value("${supabase.anon.key}") String supabaseAnonKey,
+            @Value("${supabase.storage.bucket}") String storageBucket,
+            @Value("${app.storage.max-idle-connections:5}") int maxIdleConnections,
+            @Value("${app.storage.keep-alive:PT5M}") Duration keepAlive,
+            @Value("${app.storage.max-concurrent-uploads:8}") int maxConcurrentUploads,
+            @Value("${app.storage.timeout:PT30S}") Duration timeout) {
+        this.supabaseUrl = supabaseUrl;
+        this.supabaseAnonKey = supabaseAnonKey;
+        this.storageBucket = storageBucket;
+
+        // Every call is to the same host, so the per-host limit is the real cap
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(maxConcurrentUploads);
+        dispatcher.setMaxRequestsPerHost(maxConcurrentUploads);
+
+        this.client = new OkHttpClient.Builder()
+                .connectionPool(new ConnectionPool(maxIdleConnections, keepAlive.toMillis(), TimeUnit.MILLISECONDS))
+                .dispatcher(dispatcher)
+                .callTimeout(timeout)
+                .build();
+    }
+
+    /**
+     * Uploads on the calling thread and returns the public URL.
+     */
+    public String upload(MultipartFile file, String objectName) throws IOException {
+        Request request = uploadRequest(objectName, file.getContentType(), new MultipartBody(file));
+
+        try (Response response = client.newCall(request).execute()) {
+            if (!response.isSuccessful()) {
+                throw new IOException("Upload failed: " + response.body().string());
+            }
+        }
+        return publicUrl(objectName);
+    }
+
+    /**
+     * Uploads a small, already rendered object (e.g. a thumbnail).
+     */
+    public String upload(byte[] content, String contentType, String objectName) throws IOException {
+        Request request = uploadRequest(objectName, contentType,
+                RequestBody.create(content, MediaType.parse(contentType)));
+
+        try (Response response = client.newCall(request).execute()) {
+            if (!response.isSuccessful()) {
+                throw new IOException("Upload failed: " + response.body().string());
+            }
+        }
+        return publicUrl(objectName);
+    }
+
+    /**
+     * Takes ownership of the file contents and uploads them in the background.
+     * The future completes with the public URL.
+     */
+    public CompletableFuture<String> uploadAsync(MultipartFile file, String objectName) throws IOException {
+        Path temp = Files.createTempFile("profile-upload-", ".tmp");
+        try {
+            // A rename for parts already on disk, otherwise a stream copy
+            file.transferTo(temp);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+
+        MediaType mediaType = MediaType.parse(file.getContentType());
+        Request request = uploadRequest(objectName, file.getContentType(),
+                RequestBody.create(temp.toFile(), mediaType));
+
+        CompletableFuture<String> result = new CompletableFuture<>();
+        client.newCall(request).enqueue(new Callback() {
+            @Override
+            public void onResponse(Call call, Response response) {
+                try (response) {
+                    if (response.isSuccessful()) {
+                        result.complete(publicUrl(objectName));
+                    } else {
+                        result.completeExceptionally(new IOException("Upload failed: " + response.body().string()));
+                    }
+                } catch (IOException e) {
+                    result.completeExceptionally(e);
+                } finally {
+                    deleteQuietly(temp.toFile());
+                }
+            }
+
+            @Override
+            public void onFailure(Call call, IOException e) {
+                deleteQuietly(temp.toFile());
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        client.dispatcher().executorService().shutdown();
+        client.connectionPool().evictAll();
+    }
+
+    private Request uploadRequest(String objectName, String contentType, RequestBody body) {
+        return new Request.Builder()
+                .url(supabaseUrl + "/storage/v1/object/" + storageBucket + "/" + objectName)
+                .post(body)
+                .addHeader("Authorization", "Bearer " + supabaseAnonKey)
+                .addHeader("Content-Type", contentType)
+                .build();
+    }
+
+    private String publicUrl(String objectName) {
+        return supabaseUrl + "/storage/v1/object/public/" + storageBucket + "/" + objectName;
+    }
+
+    private static void deleteQuietly(File file) {
+        if (!file.delete() && file.exists()) {
+            file.deleteOnExit();
+        }
+    }
+
+    // Streams the part's input stream into the socket; the length is known up front
+    private static final class MultipartBody extends RequestBody {
+
+        private final MultipartFile file;
+        private final MediaType mediaType;
+
+        MultipartBody(MultipartFile file) {
+            this.file = file;
+            this.mediaType = MediaType.parse(file.getContentType());
+        }
+
+        @Override
+        public MediaType contentType() {
+            return mediaType;
+        }
+
+        @Override
+        public long contentLength() {
+            return file.getSize();
+        }
+
+        @Override
+        public void writeTo(BufferedSink sink) throws IOException {
+            try (InputStream in = file.getInputStream(); Source source = Okio.source(in)) {
+                sink.writeAll(source);
+            }
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.cit.thesis.service;
+
+import com.cit.thesis.model.RefreshToken;
+import com.cit.thesis.model.User;
+import com.cit.thesis.repository.RefreshTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Opaque refresh tokens that rotate on every use.
+ *
+ * Each sign-in starts a family; a refresh marks the presented token used
+ * and hands out the next one in the same family. A used token presented
+ * again means it was copied, so the whole family is revoked and both
+ * holders have to sign in again. The exception is a repeat within
+ * {@code app.jwt.refresh-reuse-grace}, which is what two browser tabs
+ * refreshing at the same moment look like; that one gets a token of its
+ * own. Only SHA-256 digests of the tokens are stored.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final Duration ttl;
+    private final Duration reuseGrace;
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+            @Value("${app.jwt.refresh-ttl:P14D}") Duration ttl,
+            @Value("${app.jwt.refresh-reuse-grace:PT10S}") Duration reuseGrace) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.ttl = ttl;
+        this.reuseGrace = reuseGrace;
+    }
+
+    public record Rotation(Long userId, String refreshToken) {
+    }
+
+    /**
+     * Starts a new family for a fresh sign-in and returns its first token.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public String issue(User user) {
+        return create(user.getId(), UUID.randomUUID());
+    }
+
+    /**
+     * Exchanges a refresh token for the next one of its family. Failures
+     * throw {@link InvalidRefreshTokenException}; the caller's transaction
+     * must not roll back on it, or a detected replay would not stay revoked.
+     */
+    @Transactional(propagation = Propagation.MANDATORY, noRollbackFor = InvalidRefreshTokenException.class)
+    public Rotation rotate(String presented) {
+        RefreshToken token = refreshTokenRepository.findByTokenHashForUpdate(digest(presented))
+                .orElseThrow(() -> new InvalidRefreshTokenException("Invalid refresh token"));
+
+        LocalDateTime now = LocalDateTime.now();
+        if (token.getRevokedAt() != null) {
+            throw new InvalidRefreshTokenException("Session has been signed out");
+        }
+        if (token.getExpiresAt().isBefore(now)) {
+            throw new InvalidRefreshTokenException("Session expired");
+        }
+        if (token.getUsedAt() != null) {
+            if (token.getUsedAt().plus(reuseGrace).isBefore(now)) {
+                refreshTokenRepository.revokeFamily(token.getFamily(), now);
+                log.warn("Refresh token reuse for user {}; family {} revoked", token.getUserId(), token.getFamily());
+                throw new InvalidRefreshTokenException("Session has been signed out");
+            }
+        } else {
+            token.setUsedAt(now);
+        }
+
+        return new Rotation(token.getUserId(), create(token.getUserId(), token.getFamily()));
+    }
+
+    /**
+     * Revokes the family of the given token (logout). Unknown tokens are ignored.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void revokeFamily(String presented) {
+        refreshTokenRepository.findByTokenHashForUpdate(digest(presented))
+                .ifPresent(token -> refreshTokenRepository.revokeFamily(token.getFamily(), LocalDateTime.now()));
+    }
+
+    private String create(Long userId, UUID family) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        RANDOM.nextBytes(bytes);
+        String value = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        RefreshToken token = new RefreshToken();
+        token.setUserId(userId);
+        token.setTokenHash(digest(value));
+        token.setFamily(family);
+        token.setExpiresAt(LocalDateTime.now().plus(ttl));
+        refreshTokenRepository.save(token);
+        return value;
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -1,45 +1,79 @@
 package com.cit.thesis.service;
 
+import com.cit.thesis.dto.BulkScheduleResponse;
 import com.cit.thesis.dto.CreateScheduleRequest;
+import com.cit.thesis.dto.FreeWindow;
+import com.cit.thesis.dto.RecurringScheduleRequest;
 import com.cit.thesis.dto.ScheduleDto;
 import com.cit.thesis.model.Schedule;
 import com.cit.thesis.model.User;
 import com.cit.thesis.repository.ScheduleRepository;
-import com.cit.thesis.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import com.cit.thesis.dto.PageCursor;
 import com.cit.thesis.dto.PagedResponse;
 
 import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class ScheduleService {
 
         private final ScheduleRepository scheduleRepository;
-        private final UserRepository userRepository;
+        private final UserDirectory userDirectory;
+        private final OpenSlotIndex openSlotIndex;
+        private final AvailabilityFeed availabilityFeed;
+        private final AvailabilityBitmap availabilityBitmap;
+        private final ContentVersions contentVersions;
+        private final int bulkMaxDays;
+        private final int bulkMaxSlots;
 
-        public ScheduleService(ScheduleRepository scheduleRepository, UserRepository userRepository) {
+        public ScheduleService(ScheduleRepository scheduleRepository, UserDirectory userDirectory,
+                        OpenSlotIndex openSlotIndex, AvailabilityFeed availabilityFeed,
+                        AvailabilityBitmap availabilityBitmap, ContentVersions contentVersions,
+                        @Value("${app.schedules.bulk.max-days:200}") int bulkMaxDays,
+                        @Value("${app.schedules.bulk.max-slots:1000}") int bulkMaxSlots) {
                 this.scheduleRepository = scheduleRepository;
-                this.userRepository = userRepository;
+                this.userDirectory = userDirectory;
+                this.openSlotIndex = openSlotIndex;
+                this.availabilityFeed = availabilityFeed;
+                this.availabilityBitmap = availabilityBitmap;
+                this.contentVersions = contentVersions;
+                this.bulkMaxDays = bulkMaxDays;
+                this.bulkMaxSlots = bulkMaxSlots;
         }
 
-        public List<ScheduleDto> getAvailableSchedules() {
-                LocalDate today = LocalDate.now();
+        // Build the open-slot index and the availability bitmap before the server starts taking requests
+        @PostConstruct
+        public void loadOpenSlotIndex() {
                 List<Schedule> schedules = scheduleRepository
-                                .findAvailableSchedulesFromDate(today);
+                                .findAvailableSchedulesFromDate(LocalDate.now());
 
-                return schedules.stream()
-                                .map(this::mapToDto)
-                                .collect(Collectors.toList());
+                openSlotIndex.load(mapToDtos(schedules));
+                availabilityBitmap.load(scheduleRepository.findByAvailableDateGreaterThanEqual(LocalDate.now()));
         }
 
+        // Served from the in-memory index; no database access
+        public List<ScheduleDto> getAvailableSchedules() {
+                return openSlotIndex.getAvailable(LocalDate.now());
+        }
+
+        @Transactional(readOnly = true)
         public List<ScheduleDto> getMySchedules(String email) {
-                User adviser = userRepository.findByEmail(email)
+                User adviser = userDirectory.findByEmail(email)
                                 .orElseThrow(() -> new RuntimeException("User not found"));
 
                 LocalDate today = LocalDate.now();
@@ -47,40 +81,60 @@ public class ScheduleService {
                                 .findByAdviserIdOrderByAvailableDateAsc(adviser.getId());
 
                 // Filter to only show today and future schedules
-                return schedules.stream()
+                return mapToDtos(schedules.stream()
                                 .filter(schedule -> !schedule.getAvailableDate().isBefore(today))
-                                .map(this::mapToDto)
-                                .collect(Collectors.toList());
+                                .collect(Collectors.toList()));
         }
 
-        public PagedResponse<ScheduleDto> getMySchedules(String email, int page, int size) {
-                User adviser = userRepository.findByEmail(email)
+        @Transactional(readOnly = true)
+        public PagedResponse<ScheduleDto> getMySchedules(String email, String cursor, int size,
+                        boolean includeTotal) {
+                User adviser = userDirectory.findByEmail(email)
                                 .orElseThrow(() -> new RuntimeException("User not found"));
 
+                // Past schedules are excluded by the query itself, so pages are always full
                 LocalDate today = LocalDate.now();
-                Pageable pageable = PageRequest.of(page, size);
-                Page<Schedule> schedulePage = scheduleRepository
-                                .findByAdviserIdOrderByAvailableDateAsc(adviser.getId(), pageable);
+                PageCursor after = PageCursor.decode(cursor);
+                Pageable limit = PageRequest.of(0, size + 1);
+                List<Schedule> schedules = after == null
+                                ? scheduleRepository.findAdviserPage(adviser.getId(), today, limit)
+                                : scheduleRepository.findAdviserPageAfter(adviser.getId(), today, after.date(),
+                                                after.id(), limit);
 
-                // Filter out past schedules
-                List<ScheduleDto> dtos = schedulePage.getContent().stream()
-                                .filter(schedule -> !schedule.getAvailableDate().isBefore(today))
-                                .map(this::mapToDto)
-                                .collect(Collectors.toList());
+                String nextCursor = null;
+                if (schedules.size() > size) {
+                        schedules = schedules.subList(0, size);
+                        Schedule last = schedules.get(size - 1);
+                        nextCursor = new PageCursor(last.getAvailableDate(), last.getId()).encode();
+                }
+
+                Long total = includeTotal
+                                ? scheduleRepository.countByAdviserIdAndAvailableDateGreaterThanEqual(adviser.getId(),
+                                                today)
+                                : null;
+
+                return new PagedResponse<>(mapToDtos(schedules), size, after == null, nextCursor, total);
+        }
+
+        // Gaps in the adviser's own schedule on one day, answered from the availability bitmap
+        public List<FreeWindow> getFreeWindows(String email, LocalDate date, LocalTime from, LocalTime to,
+                        int minMinutes) {
+                User adviser = userDirectory.findByEmail(email)
+                                .orElseThrow(() -> new RuntimeException("User not found"));
 
-                return new PagedResponse<>(
-                                dtos,
-                                schedulePage.getNumber(),
-                                schedulePage.getTotalPages(),
-                                schedulePage.getTotalElements(),
-                                schedulePage.getSize(),
-                                schedulePage.isFirst(),
-                                schedulePage.isLast());
+                if (date.isBefore(LocalDate.now())) {
+                        throw new IllegalArgumentException("Cannot look up free time for past dates");
+                }
+                if (!to.isAfter(from)) {
+                        throw new IllegalArgumentException("End time must be after start time");
+                }
+
+                return availabilityBitmap.freeWindows(adviser.getId(), date, from, to, minMinutes);
         }
 
         @Transactional
         public ScheduleDto createSchedule(CreateScheduleRequest request, String email) {
-                User adviser = userRepository.findByEmail(email)
+                User adviser = userDirectory.findByEmail(email)
                                 .orElseThrow(() -> new RuntimeException("User not found"));
 
                 if (!request.getEndTime().isAfter(request.getStartTime())) {
@@ -91,18 +145,33 @@ public class ScheduleService {
                         throw new IllegalArgumentException("Cannot create schedule for past dates");
                 }
 
-                List<Schedule> overlapping = scheduleRepository.findOverlappingSchedules(
-                                adviser.getId(),
-                                request.getAvailableDate(),
-                                request.getStartTime(),
-                                request.getEndTime());
+                // The bitmap answers the common no-overlap case; only a possible overlap goes to the database
+                AvailabilityBitmap.Reservation reservation = availabilityBitmap.tryReserve(adviser.getId(),
+                                request.getAvailableDate(), request.getStartTime(), request.getEndTime());
+
+                if (reservation == AvailabilityBitmap.Reservation.CHECK) {
+                        List<Schedule> overlapping = scheduleRepository.findOverlappingSchedules(
+                                        adviser.getId(),
+                                        request.getAvailableDate(),
+                                        request.getStartTime(),
+                                        request.getEndTime());
 
-                if (!overlapping.isEmpty()) {
-                        Schedule conflict = overlapping.get(0);
-                        String conflictTime = conflict.getStartTime() + " - " + conflict.getEndTime();
+                        if (!overlapping.isEmpty()) {
+                                Schedule conflict = overlapping.get(0);
+                                String conflictTime = conflict.getStartTime() + " - " + conflict.getEndTime();
+                                throw new IllegalStateException(
+                                                "Schedule conflicts with existing slot on " +
+                                                                request.getAvailableDate() + " from " + conflictTime);
+                        }
+
+                        reservation = availabilityBitmap.reserveConfirmed(adviser.getId(),
+                                        request.getAvailableDate(), request.getStartTime(), request.getEndTime());
+                }
+
+                if (reservation == AvailabilityBitmap.Reservation.BUSY) {
                         throw new IllegalStateException(
-                                        "Schedule conflicts with existing slot on " +
-                                                        request.getAvailableDate() + " from " + conflictTime);
+                                        "Schedule conflicts with a slot on " + request.getAvailableDate() +
+                                                        " that is being created right now");
                 }
 
                 Schedule schedule = new Schedule();
@@ -114,12 +183,153 @@ public class ScheduleService {
 
                 schedule = scheduleRepository.save(schedule);
 
-                return mapToDto(schedule);
+                ScheduleDto dto = mapToDto(schedule);
+                openSlotIndex.slotOpened(dto);
+                availabilityFeed.slotCreated(dto);
+                contentVersions.availabilityChanged();
+                contentVersions.usersChanged(adviser.getId());
+
+                return dto;
+        }
+
+        /**
+         * Expands a recurrence pattern into slots and creates every slot that
+         * does not overlap one the adviser already has. Overlaps are checked
+         * against the availability bitmap; only slots it cannot clear are
+         * confirmed with one read of the range. The new slots are inserted as
+         * a JDBC batch and the skipped ones returned as conflicts.
+         */
+        @Transactional
+        public BulkScheduleResponse createRecurringSchedules(RecurringScheduleRequest request, String email) {
+                User adviser = userDirectory.findByEmail(email)
+                                .orElseThrow(() -> new RuntimeException("User not found"));
+
+                List<Schedule> generated = expandPattern(request, adviser.getId());
+
+                // Slots reserved here are pending in the bitmap, so later slots of this request see them too
+                List<Schedule> accepted = new ArrayList<>();
+                List<Schedule> toConfirm = new ArrayList<>();
+                List<BulkScheduleResponse.Conflict> conflicts = new ArrayList<>();
+                for (Schedule slot : generated) {
+                        switch (availabilityBitmap.tryReserve(adviser.getId(), slot.getAvailableDate(),
+                                        slot.getStartTime(), slot.getEndTime())) {
+                                case RESERVED -> accepted.add(slot);
+                                case CHECK -> toConfirm.add(slot);
+                                case BUSY -> conflicts.add(conflict(slot, null));
+                        }
+                }
+
+                if (!toConfirm.isEmpty()) {
+                        Map<LocalDate, List<Schedule>> existingByDate = new HashMap<>();
+                        for (Schedule existing : scheduleRepository.findAdviserSchedulesBetween(adviser.getId(),
+                                        toConfirm.get(0).getAvailableDate(),
+                                        toConfirm.get(toConfirm.size() - 1).getAvailableDate())) {
+                                existingByDate.computeIfAbsent(existing.getAvailableDate(), d -> new ArrayList<>())
+                                                .add(existing);
+                        }
+
+                        for (Schedule slot : toConfirm) {
+                                Schedule clash = existingByDate.getOrDefault(slot.getAvailableDate(), List.of())
+                                                .stream()
+                                                .filter(s -> s.getStartTime().isBefore(slot.getEndTime())
+                                                                && s.getEndTime().isAfter(slot.getStartTime()))
+                                                .findFirst()
+                                                .orElse(null);
+
+                                if (clash != null) {
+                                        conflicts.add(conflict(slot, clash.getId()));
+                                } else if (availabilityBitmap.reserveConfirmed(adviser.getId(), slot.getAvailableDate(),
+                                                slot.getStartTime(), slot.getEndTime()) == AvailabilityBitmap.Reservation.RESERVED) {
+                                        accepted.add(slot);
+                                } else {
+                                        conflicts.add(conflict(slot, null));
+                                }
+                        }
+
+                        accepted.sort(Comparator.comparing(Schedule::getAvailableDate)
+                                        .thenComparing(Schedule::getStartTime));
+                }
+
+                scheduleRepository.insertAll(accepted);
+
+                List<ScheduleDto> created = mapToDtos(accepted);
+                created.forEach(openSlotIndex::slotOpened);
+                availabilityFeed.slotsCreated(adviser.getId(), created);
+                if (!created.isEmpty()) {
+                        contentVersions.availabilityChanged();
+                        contentVersions.usersChanged(adviser.getId());
+                }
+
+                return new BulkScheduleResponse(created, conflicts);
+        }
+
+        private static BulkScheduleResponse.Conflict conflict(Schedule slot, Long conflictingScheduleId) {
+                return new BulkScheduleResponse.Conflict(slot.getAvailableDate(), slot.getStartTime(),
+                                slot.getEndTime(), conflictingScheduleId);
+        }
+
+        // Generated in date and time order, which the range read above relies on
+        private List<Schedule> expandPattern(RecurringScheduleRequest request, Long adviserId) {
+                if (request.getStartDate() == null || request.getEndDate() == null) {
+                        throw new IllegalArgumentException("Start and end date are required");
+                }
+                if (request.getEndDate().isBefore(request.getStartDate())) {
+                        throw new IllegalArgumentException("End date must not be before start date");
+                }
+                if (request.getStartDate().isBefore(LocalDate.now())) {
+                        throw new IllegalArgumentException("Cannot create schedule for past dates");
+                }
+                if (ChronoUnit.DAYS.between(request.getStartDate(), request.getEndDate()) >= bulkMaxDays) {
+                        throw new IllegalArgumentException("Date range cannot exceed " + bulkMaxDays + " days");
+                }
+                if (request.getDaysOfWeek() == null || request.getDaysOfWeek().isEmpty()) {
+                        throw new IllegalArgumentException("At least one day of the week is required");
+                }
+                if (request.getWindows() == null || request.getWindows().isEmpty()) {
+                        throw new IllegalArgumentException("At least one time window is required");
+                }
+                if (request.getSlotMinutes() == null || request.getSlotMinutes() < 5
+                                || request.getSlotMinutes() > 24 * 60) {
+                        throw new IllegalArgumentException("Slot length must be between 5 minutes and 24 hours");
+                }
+                for (RecurringScheduleRequest.TimeWindow window : request.getWindows()) {
+                        if (window.getStartTime() == null || window.getEndTime() == null
+                                        || !window.getEndTime().isAfter(window.getStartTime())) {
+                                throw new IllegalArgumentException("End time must be after start time");
+                        }
+                }
+
+                List<Schedule> slots = new ArrayList<>();
+                for (LocalDate date = request.getStartDate(); !date.isAfter(request.getEndDate()); date = date.plusDays(1)) {
+                        if (!request.getDaysOfWeek().contains(date.getDayOfWeek())) {
+                                continue;
+                        }
+                        for (RecurringScheduleRequest.TimeWindow window : request.getWindows()) {
+                                // Minutes of the day, so a window ending at midnight can't wrap around
+                                int length = request.getSlotMinutes();
+                                int end = window.getEndTime().toSecondOfDay() / 60;
+                                for (int start = window.getStartTime().toSecondOfDay() / 60; start + length <= end; start += length) {
+                                        if (slots.size() == bulkMaxSlots) {
+                                                throw new IllegalArgumentException(
+                                                                "Pattern generates more than " + bulkMaxSlots + " slots");
+                                        }
+
+                                        Schedule slot = new Schedule();
+                                        slot.setAdviserId(adviserId);
+                                        slot.setAvailableDate(date);
+                                        slot.setStartTime(LocalTime.ofSecondOfDay(start * 60L));
+                                        slot.setEndTime(LocalTime.ofSecondOfDay((start + length) * 60L));
+                                        slot.setIsBooked(false);
+                                        slots.add(slot);
+                                }
+                        }
+                }
+                return slots;
         }
 
         @Transactional
         public void deleteSchedule(Long scheduleId, String email) {
-                User adviser = userRepository.findByEmail(email)
+                User adviser = userDirectory.findByEmail(email)
                                 .orElseThrow(() -> new RuntimeException("User not found"));
 
                 Schedule schedule = scheduleRepository.findById(scheduleId)
@@ -134,10 +344,38 @@ public class ScheduleService {
                 }
 
                 scheduleRepository.delete(schedule);
+                openSlotIndex.slotClosed(schedule.getId());
+                availabilityBitmap.release(schedule.getAdviserId(), schedule.getAvailableDate(),
+                                schedule.getStartTime(), schedule.getEndTime());
+                availabilityFeed.slotDeleted(schedule.getId(), schedule.getAdviserId());
+                contentVersions.availabilityChanged();
+                contentVersions.usersChanged(adviser.getId());
         }
 
         private ScheduleDto mapToDto(Schedule schedule) {
-                User adviser = userRepository.findById(schedule.getAdviserId()).orElse(null);
+                return mapToDtos(List.of(schedule)).get(0);
+        }
+
+        // Resolves every referenced adviser with a single query
+        private List<ScheduleDto> mapToDtos(List<Schedule> schedules) {
+                if (schedules.isEmpty()) {
+                        return new ArrayList<>();
+                }
+
+                Set<Long> adviserIds = schedules.stream()
+                                .map(Schedule::getAdviserId)
+                                .collect(Collectors.toSet());
+
+                Map<Long, User> advisers = userDirectory.findAllById(adviserIds).stream()
+                                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+                return schedules.stream()
+                                .map(s -> mapToDto(s, advisers))
+                                .collect(Collectors.toList());
+        }
+
+        private ScheduleDto mapToDto(Schedule schedule, Map<Long, User> advisers) {
+                User adviser = advisers.get(schedule.getAdviserId());
 
                 return new ScheduleDto(
                                 schedule.getId(),
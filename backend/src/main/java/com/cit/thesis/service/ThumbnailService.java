@@ -0,0 +1,254 @@
+package com.cit.thesis.service;
+
+import com.cit.thesis.model.User;
+import com.cit.thesis.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Renders 64px and 256px square JPEG thumbnails of uploaded profile images
+ * on a small background pool.
+ *
+ * The pool has a fixed number of workers and a bounded queue of staged
+ * source files (on disk, not in memory). When the queue is full new jobs
+ * are dropped and the user keeps only the original picture, so a burst of
+ * uploads cannot pile up. Sources are decoded with subsampling, so a
+ * large photo never becomes a full-resolution bitmap on the heap.
+ *
+ * JPEG is used because the JDK's ImageIO has no WebP writer.
+ */
+@Component
+public class ThumbnailService {
+
+    private static final Logger log = LoggerFactory.getLogger(ThumbnailService.class);
+
+    static final int SMALL_SIZE = 64;
+    static final int LARGE_SIZE = 256;
+
+    private static final String CONTENT_TYPE = "image/jpeg";
+    private static final float JPEG_QUALITY = 0.85f;
+
+    private final UserRepository userRepository;
+    private final UserDirectory userDirectory;
+    private final ProfileImageStorage profileImageStorage;
+    private final TransactionOperations transactions;
+    private final ThreadPoolExecutor executor;
+    private final Counter dropped;
+
+    public ThumbnailService(UserRepository userRepository, UserDirectory userDirectory,
+            ProfileImageStorage profileImageStorage, TransactionOperations transactions,
+            MeterRegistry meterRegistry,
+            @Value("${app.thumbnails.workers:2}") int workers,
+            @Value("${app.thumbnails.queue-capacity:32}") int queueCapacity) {
+        this.userRepository = userRepository;
+        this.userDirectory = userDirectory;
+        this.profileImageStorage = profileImageStorage;
+        this.transactions = transactions;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "thumbnail-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("app.thumbnails.queue", executor, e -> e.getQueue().size())
+                .description("Thumbnail jobs waiting for a worker")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("app.thumbnails.dropped")
+                .description("Thumbnail jobs rejected because the queue was full")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Copies the upload to a temp file if there is room in the queue.
+     * Returns null when the pool is saturated; the caller then skips
+     * thumbnails for this upload.
+     */
+    public Path stage(MultipartFile file) {
+        if (executor.getQueue().remainingCapacity() == 0) {
+            dropped.increment();
+            return null;
+        }
+
+        try {
+            Path source = Files.createTempFile("thumbnail-source-", ".tmp");
+            try (InputStream in = file.getInputStream()) {
+                Files.copy(in, source, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return source;
+        } catch (IOException e) {
+            log.warn("Could not stage thumbnail source: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Queues thumbnail generation for a staged source; takes ownership of
+     * the file. The thumbnails are only recorded if pictureUrl is still the
+     * user's picture when they are done.
+     */
+    public void submit(User user, String pictureUrl, String objectName, Path source) {
+        if (source == null) {
+            return;
+        }
+
+        try {
+            executor.execute(() -> render(user, pictureUrl, objectName, source));
+        } catch (RejectedExecutionException e) {
+            dropped.increment();
+            discard(source);
+        }
+    }
+
+    public void discard(Path source) {
+        if (source == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(source);
+        } catch (IOException e) {
+            log.warn("Could not delete thumbnail source {}: {}", source, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void render(User user, String pictureUrl, String objectName, Path source) {
+        try {
+            BufferedImage image = readSubsampled(source, LARGE_SIZE);
+            if (image == null) {
+                log.debug("No image reader for the upload of user {}; skipping thumbnails", user.getId());
+                return;
+            }
+
+            String baseName = objectName.contains(".")
+                    ? objectName.substring(0, objectName.lastIndexOf('.'))
+                    : objectName;
+            String smallUrl = profileImageStorage.upload(
+                    encodeJpeg(squareThumbnail(image, SMALL_SIZE)), CONTENT_TYPE, baseName + "-64.jpg");
+            String largeUrl = profileImageStorage.upload(
+                    encodeJpeg(squareThumbnail(image, LARGE_SIZE)), CONTENT_TYPE, baseName + "-256.jpg");
+
+            if (Boolean.TRUE.equals(transactions.execute(status -> applyThumbnails(user.getId(), pictureUrl,
+                    smallUrl, largeUrl)))) {
+                userDirectory.evict(user);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Thumbnail generation for user {} failed: {}", user.getId(), e.getMessage());
+        } finally {
+            discard(source);
+        }
+    }
+
+    // Only applies if the picture hasn't been replaced while the thumbnails were rendered
+    private boolean applyThumbnails(Long userId, String pictureUrl, String smallUrl, String largeUrl) {
+        User current = userRepository.findByIdForUpdate(userId).orElse(null);
+        if (current == null || !pictureUrl.equals(current.getPictureUrl())) {
+            return false;
+        }
+        current.setThumbnailSmallUrl(smallUrl);
+        current.setThumbnailLargeUrl(largeUrl);
+        return true;
+    }
+
+    // Decodes at the smallest power-of-two-ish subsampling that still covers the target size
+    private static BufferedImage readSubsampled(Path source, int targetSize) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(source.toFile())) {
+            if (input == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int shortSide = Math.min(reader.getWidth(0), reader.getHeight(0));
+                int step = Math.max(1, shortSide / (targetSize * 2));
+
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Centre crop to a square, scaled onto an opaque background (JPEG has no alpha)
+    private static BufferedImage squareThumbnail(BufferedImage image, int size) {
+        int side = Math.min(image.getWidth(), image.getHeight());
+        int x = (image.getWidth() - side) / 2;
+        int y = (image.getHeight() - side) / 2;
+
+        BufferedImage thumbnail = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = thumbnail.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, size, size);
+            g.drawImage(image, 0, 0, size, size, x, y, x + side, y + side, null);
+        } finally {
+            g.dispose();
+        }
+        return thumbnail;
+    }
+
+    private static byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(bytes)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return bytes.toByteArray();
+    }
+}
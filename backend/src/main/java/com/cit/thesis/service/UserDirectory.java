@@ -0,0 +1,173 @@
+package com.cit.thesis.service;
+
+import com.cit.thesis.datasource.ReadYourWrites;
+import com.cit.thesis.model.User;
+import com.cit.thesis.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Read-through cache of users keyed by id and email.
+ *
+ * Entries expire after a fixed TTL and are evicted explicitly by the
+ * service methods that write a user. Callers that intend to modify a user
+ * must load it from {@link UserRepository} instead, so a failed write can
+ * never leave a half-modified instance in the cache.
+ *
+ * {@link #version()} changes on every eviction, so responses that embed
+ * user names or pictures can use it in their ETags.
+ *
+ * With a read replica, a lookup can still load the old row until the
+ * replica has caught up, so evicted users are evicted once more after the
+ * {@link ReadYourWrites} window.
+ */
+@Component
+public class UserDirectory {
+
+    private final UserRepository userRepository;
+    private final Duration replicaLag;
+    private final Cache<Long, User> usersById;
+    private final Cache<String, Long> idsByEmail;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final AtomicLong version = new AtomicLong();
+
+    public UserDirectory(UserRepository userRepository, ReadYourWrites readYourWrites,
+            @Value("${app.cache.users.max-size:10000}") long maxSize,
+            @Value("${app.cache.users.ttl:PT5M}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.replicaLag = readYourWrites.window();
+        this.usersById = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+        this.idsByEmail = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public Optional<User> findByEmail(String email) {
+        Long id = idsByEmail.getIfPresent(email);
+        if (id != null) {
+            User cached = usersById.getIfPresent(id);
+            if (cached != null && email.equals(cached.getEmail())) {
+                hits.increment();
+                return Optional.of(cached);
+            }
+        }
+
+        misses.increment();
+        Optional<User> user = userRepository.findByEmail(email);
+        user.ifPresent(this::put);
+        return user;
+    }
+
+    public Optional<User> findById(Long id) {
+        User cached = usersById.getIfPresent(id);
+        if (cached != null) {
+            hits.increment();
+            return Optional.of(cached);
+        }
+
+        misses.increment();
+        Optional<User> user = userRepository.findById(id);
+        user.ifPresent(this::put);
+        return user;
+    }
+
+    // Serves what it can from the cache and loads the rest with one query
+    public List<User> findAllById(Collection<Long> ids) {
+        Map<Long, User> found = new LinkedHashMap<>(usersById.getAllPresent(ids));
+        hits.add(found.size());
+
+        List<Long> missing = new ArrayList<>();
+        for (Long id : ids) {
+            if (!found.containsKey(id)) {
+                missing.add(id);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            misses.add(missing.size());
+            for (User user : userRepository.findAllById(missing)) {
+                put(user);
+                found.put(user.getId(), user);
+            }
+        }
+
+        return new ArrayList<>(found.values());
+    }
+
+    // Evicts now and again once the surrounding transaction has finished, so a
+    // concurrent read cannot re-cache the pre-commit row
+    public void evict(User user) {
+        Long id = user.getId();
+        String email = user.getEmail();
+        invalidate(id, email);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidate(id, email);
+                    invalidateAfterReplicaLag(id, email);
+                }
+            });
+        } else {
+            invalidateAfterReplicaLag(id, email);
+        }
+    }
+
+    public long version() {
+        return version.get();
+    }
+
+    public Map<String, Object> getStats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long requests = hitCount + missCount;
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", usersById.estimatedSize());
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRate", requests == 0 ? 0.0 : (double) hitCount / requests);
+        return stats;
+    }
+
+    private void invalidate(Long id, String email) {
+        usersById.invalidate(id);
+        idsByEmail.invalidate(email);
+        version.incrementAndGet();
+    }
+
+    private void invalidateAfterReplicaLag(Long id, String email) {
+        if (!replicaLag.isZero()) {
+            CompletableFuture.delayedExecutor(replicaLag.toMillis(), TimeUnit.MILLISECONDS)
+                    .execute(() -> invalidate(id, email));
+        }
+    }
+
+    private void put(User user) {
+        usersById.put(user.getId(), user);
+        idsByEmail.put(user.getEmail(), user.getId());
+    }
+}
@@ -5,15 +5,22 @@ import com.cit.thesis.model.User;
 import com.cit.thesis.model.UserRole;
 import com.cit.thesis.repository.ConsultationRepository;
 import com.cit.thesis.repository.UserRepository;
+import com.cit.thesis.security.TokenRevocations;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import com.cit.thesis.dto.PagedResponse;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -23,28 +30,38 @@ public class UserManagementService {
 
         private final UserRepository userRepository;
         private final ConsultationRepository consultationRepository;
+        private final UserDirectory userDirectory;
+        private final UserStatsCounter userStatsCounter;
+        private final Statistics hibernateStatistics;
+        private final TokenRevocations tokenRevocations;
 
         public UserManagementService(UserRepository userRepository,
-                        ConsultationRepository consultationRepository) {
+                        ConsultationRepository consultationRepository,
+                        UserDirectory userDirectory,
+                        UserStatsCounter userStatsCounter,
+                        EntityManagerFactory entityManagerFactory,
+                        TokenRevocations tokenRevocations) {
                 this.userRepository = userRepository;
                 this.consultationRepository = consultationRepository;
+                this.userDirectory = userDirectory;
+                this.userStatsCounter = userStatsCounter;
+                this.hibernateStatistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+                this.tokenRevocations = tokenRevocations;
         }
 
+        @Transactional(readOnly = true)
         public List<UserDto> getAllUsers() {
-                List<User> users = userRepository.findAll()
-                                .stream()
-                                .filter(u -> !"DEACTIVATED".equals(u.getAccountStatus()))
-                                .collect(Collectors.toList());
+                List<User> users = userRepository.findByAccountStatusNotOrNull("DEACTIVATED");
 
                 return users.stream().map(this::convertToDto).collect(Collectors.toList());
         }
 
+        @Transactional(readOnly = true)
         public PagedResponse<UserDto> getAllUsers(int page, int size) {
-                Pageable pageable = PageRequest.of(page, size);
-                Page<User> userPage = userRepository.findAll(pageable);
+                Pageable pageable = PageRequest.of(page, size, Sort.by("id"));
+                Page<User> userPage = userRepository.findByAccountStatusNotOrNull("DEACTIVATED", pageable);
 
                 List<UserDto> dtos = userPage.getContent().stream()
-                                .filter(u -> !"DEACTIVATED".equals(u.getAccountStatus()))
                                 .map(this::convertToDto)
                                 .collect(Collectors.toList());
 
@@ -58,6 +75,7 @@ public class UserManagementService {
                                 userPage.isLast());
         }
 
+        @Transactional(readOnly = true)
         public List<UserDto> getPendingUsers() {
                 List<User> pendingUsers = userRepository.findByAccountStatus("PENDING");
                 return pendingUsers.stream()
@@ -79,6 +97,8 @@ public class UserManagementService {
                 user.setActive(true);
 
                 user = userRepository.save(user);
+                userDirectory.evict(user);
+                userStatsCounter.changed("PENDING", user.getRole(), "ACTIVE", user.getRole());
 
                 return convertToDto(user);
         }
@@ -92,8 +112,10 @@ public class UserManagementService {
                         throw new RuntimeException("User is not pending approval");
                 }
 
+                tokenRevocations.revokeAll(user);
                 userRepository.delete(user);
-
+                userDirectory.evict(user);
+                userStatsCounter.removed(user.getAccountStatus(), user.getRole());
         }
 
         @Transactional
@@ -106,37 +128,55 @@ public class UserManagementService {
                 long adviserConsultations = consultationRepository.countByAdviserId(userId);
                 long totalConsultations = studentConsultations + adviserConsultations;
 
+                String oldStatus = user.getAccountStatus();
+                // Signs the user out everywhere, whichever way the account goes
+                tokenRevocations.revokeAll(user);
+
                 if (totalConsultations == 0) {
 
                         userRepository.delete(user);
+                        userStatsCounter.removed(oldStatus, user.getRole());
                 } else {
                         // Soft delete - keep for audit trail
                         user.setAccountStatus("DEACTIVATED");
                         user.setActive(false);
 
                         userRepository.save(user);
+                        userStatsCounter.changed(oldStatus, user.getRole(), "DEACTIVATED", user.getRole());
                 }
+                // Hibernate drops the second-level cache entry and the cached user queries on
+                // commit; the directory is ours to evict
+                userDirectory.evict(user);
         }
 
+        @Transactional(readOnly = true)
         public Map<String, Long> getUserStats() {
-                List<User> allUsers = userRepository.findAll();
-
-                long totalUsers = allUsers.size();
-                long activeUsers = allUsers.stream()
-                                .filter(u -> "ACTIVE".equals(u.getAccountStatus()))
-                                .count();
-                long pendingUsers = allUsers.stream()
-                                .filter(u -> "PENDING".equals(u.getAccountStatus()))
-                                .count();
-                long students = allUsers.stream()
-                                .filter(u -> u.getRole() == UserRole.STUDENT_REP)
-                                .count();
-                long faculty = allUsers.stream()
-                                .filter(u -> u.getRole() == UserRole.FACULTY_ADVISER)
-                                .count();
-                long admins = allUsers.stream()
-                                .filter(u -> u.getRole() == UserRole.ADMIN)
-                                .count();
+                long totalUsers = 0;
+                long activeUsers = 0;
+                long pendingUsers = 0;
+                long students = 0;
+                long faculty = 0;
+                long admins = 0;
+
+                for (Map.Entry<UserStatsCounter.Bucket, Long> entry : userStatsCounter.snapshot().entrySet()) {
+                        String status = entry.getKey().accountStatus();
+                        UserRole role = entry.getKey().role();
+                        long count = entry.getValue();
+
+                        totalUsers += count;
+                        if ("ACTIVE".equals(status)) {
+                                activeUsers += count;
+                        } else if ("PENDING".equals(status)) {
+                                pendingUsers += count;
+                        }
+                        if (role == UserRole.STUDENT_REP) {
+                                students += count;
+                        } else if (role == UserRole.FACULTY_ADVISER) {
+                                faculty += count;
+                        } else if (role == UserRole.ADMIN) {
+                                admins += count;
+                        }
+                }
 
                 Map<String, Long> stats = new HashMap<>();
                 stats.put("totalUsers", totalUsers);
@@ -149,8 +189,31 @@ public class UserManagementService {
                 return stats;
         }
 
+        // User directory figures, plus one entry per Hibernate second-level cache region
+        public Map<String, Object> getUserCacheStats() {
+                Map<String, Object> stats = new LinkedHashMap<>(userDirectory.getStats());
+
+                Map<String, Object> regions = new LinkedHashMap<>();
+                for (String regionName : hibernateStatistics.getSecondLevelCacheRegionNames()) {
+                        CacheRegionStatistics region = hibernateStatistics.getCacheRegionStatistics(regionName);
+                        if (region == null) {
+                                continue;
+                        }
+                        long requests = region.getHitCount() + region.getMissCount();
+
+                        Map<String, Object> regionStats = new LinkedHashMap<>();
+                        regionStats.put("hits", region.getHitCount());
+                        regionStats.put("misses", region.getMissCount());
+                        regionStats.put("puts", region.getPutCount());
+                        regionStats.put("hitRate", requests == 0 ? 0.0 : (double) region.getHitCount() / requests);
+                        regions.put(regionName, regionStats);
+                }
+                stats.put("regions", regions);
+                return stats;
+        }
+
         private UserDto convertToDto(User user) {
-                return new UserDto(
+                UserDto dto = new UserDto(
                                 user.getId(),
                                 user.getEmail(),
                                 user.getName(),
@@ -162,8 +225,13 @@ public class UserManagementService {
                                 user.getTeamCode(),
                                 user.getDepartment(),
                                 user.getAccountStatus());
+
+                dto.setThumbnailSmallUrl(user.getThumbnailSmallUrl());
+                dto.setThumbnailLargeUrl(user.getThumbnailLargeUrl());
+                return dto;
         }
 
+        @Transactional(readOnly = true)
         public List<UserDto> getArchivedUsers() {
                 return userRepository.findByAccountStatus("DEACTIVATED")
                                 .stream()
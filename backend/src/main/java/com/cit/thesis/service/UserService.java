@@ -6,36 +6,54 @@ import com.cit.thesis.model.User;
 import com.cit.thesis.model.UserRole;
 import com.cit.thesis.repository.ConsultationRepository;
 import com.cit.thesis.repository.UserRepository;
-import okhttp3.*;
+import com.cit.thesis.security.TokenRevocations;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.nio.file.Path;
 
 @Service
 public class UserService {
 
+    private static final Logger log = LoggerFactory.getLogger(UserService.class);
+
     private final UserRepository userRepository;
     private final ConsultationRepository consultationRepository;
-
-    @Value("${supabase.url}")
-    private String supabaseUrl;
-
-    @Value("${supabase.anon.key}")
-    private String supabaseAnonKey;
-
-    @Value("${supabase.storage.bucket}")
-    private String storageBucket;
-
-    public UserService(UserRepository userRepository, ConsultationRepository consultationRepository) {
+    private final UserDirectory userDirectory;
+    private final OpenSlotIndex openSlotIndex;
+    private final UserStatsCounter userStatsCounter;
+    private final ProfileImageStorage profileImageStorage;
+    private final ThumbnailService thumbnailService;
+    private final TokenRevocations tokenRevocations;
+    private final TransactionOperations transactions;
+
+    @Value("${spring.servlet.multipart.max-file-size:5MB}")
+    private DataSize maxFileSize;
+
+    public UserService(UserRepository userRepository, ConsultationRepository consultationRepository,
+            UserDirectory userDirectory, OpenSlotIndex openSlotIndex, UserStatsCounter userStatsCounter,
+            ProfileImageStorage profileImageStorage, ThumbnailService thumbnailService,
+            TokenRevocations tokenRevocations, TransactionOperations transactions) {
         this.userRepository = userRepository;
         this.consultationRepository = consultationRepository;
+        this.userDirectory = userDirectory;
+        this.openSlotIndex = openSlotIndex;
+        this.userStatsCounter = userStatsCounter;
+        this.profileImageStorage = profileImageStorage;
+        this.thumbnailService = thumbnailService;
+        this.tokenRevocations = tokenRevocations;
+        this.transactions = transactions;
     }
 
     public UserDto getUserProfile(String email) {
-        User user = userRepository.findByEmail(email)
+        User user = userDirectory.findByEmail(email)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         return convertToDto(user);
@@ -62,65 +80,105 @@ public class UserService {
             user.setDepartment(request.getDepartment());
         }
 
-        if (request.getPictureUrl() != null && !request.getPictureUrl().isBlank()) {
+        if (request.getPictureUrl() != null && !request.getPictureUrl().isBlank()
+                && !request.getPictureUrl().equals(user.getPictureUrl())) {
             user.setPictureUrl(request.getPictureUrl());
+            // Thumbnails belong to the old picture; clients fall back to pictureUrl
+            user.setThumbnailSmallUrl(null);
+            user.setThumbnailLargeUrl(null);
         }
 
         user = userRepository.save(user);
+        userDirectory.evict(user);
+
+        if (user.getRole() == UserRole.FACULTY_ADVISER) {
+            openSlotIndex.adviserRenamed(user.getId(), user.getName());
+        }
 
         return convertToDto(user);
     }
 
-    @Transactional
+    // No transaction here: the storage round trip must not hold a pooled connection
     public UserDto uploadProfileImage(MultipartFile file, String email) {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
+        String objectName = validateImage(file, user);
+
         try {
-            if (file.isEmpty())
-                throw new RuntimeException("File is empty");
-            if (file.getSize() > 5 * 1024 * 1024)
-                throw new RuntimeException("File exceeds 5MB");
-
-            String contentType = file.getContentType();
-            if (contentType == null || !contentType.startsWith("image/")) {
-                throw new RuntimeException("Only images allowed");
-            }
+            String pictureUrl = profileImageStorage.upload(file, objectName);
+            updatePictureUrl(user, pictureUrl);
+            thumbnailService.submit(user, pictureUrl, objectName, thumbnailService.stage(file));
 
-            String ext = file.getOriginalFilename().substring(file.getOriginalFilename().lastIndexOf("."));
-            String fileName = user.getId() + "-" + System.currentTimeMillis() + ext;
+            user.setPictureUrl(pictureUrl);
+            user.setThumbnailSmallUrl(null);
+            user.setThumbnailLargeUrl(null);
+            return convertToDto(user);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to upload: " + e.getMessage());
+        }
+    }
 
-            OkHttpClient client = new OkHttpClient();
+    // Returns the current profile right away; pictureUrl is updated once the upload finishes
+    public UserDto uploadProfileImageAsync(MultipartFile file, String email) {
+        User user = userRepository.findByEmail(email)
+                .orElseThrow(() -> new RuntimeException("User not found"));
 
-            RequestBody requestBody = RequestBody.create(file.getBytes(), MediaType.parse(contentType));
+        String objectName = validateImage(file, user);
 
-            Request request = new Request.Builder()
-                    .url(supabaseUrl + "/storage/v1/object/" + storageBucket + "/" + fileName)
-                    .post(requestBody)
-                    .addHeader("Authorization", "Bearer " + supabaseAnonKey)
-                    .addHeader("Content-Type", contentType)
-                    .build();
+        // Staged before the part is handed over to the storage client
+        Path thumbnailSource = thumbnailService.stage(file);
 
-            Response response = client.newCall(request).execute();
+        try {
+            profileImageStorage.uploadAsync(file, objectName)
+                    .thenAccept(pictureUrl -> {
+                        updatePictureUrl(user, pictureUrl);
+                        thumbnailService.submit(user, pictureUrl, objectName, thumbnailSource);
+                    })
+                    .exceptionally(e -> {
+                        thumbnailService.discard(thumbnailSource);
+                        log.warn("Profile image upload for user {} failed: {}", user.getId(), e.getMessage());
+                        return null;
+                    });
+        } catch (IOException e) {
+            thumbnailService.discard(thumbnailSource);
+            throw new RuntimeException("Failed to upload: " + e.getMessage());
+        }
 
-            if (!response.isSuccessful()) {
-                throw new RuntimeException("Upload failed: " + response.body().string());
-            }
+        return convertToDto(user);
+    }
 
-            String pictureUrl = supabaseUrl + "/storage/v1/object/public/" + storageBucket + "/" + fileName;
+    private String validateImage(MultipartFile file, User user) {
+        if (file.isEmpty())
+            throw new RuntimeException("File is empty");
+        if (file.getSize() > maxFileSize.toBytes())
+            throw new RuntimeException("File exceeds " + maxFileSize.toMegabytes() + "MB");
 
-            user.setPictureUrl(pictureUrl);
-            user = userRepository.save(user);
+        String contentType = file.getContentType();
+        if (contentType == null || !contentType.startsWith("image/")) {
+            throw new RuntimeException("Only images allowed");
+        }
 
-            return convertToDto(user);
+        String originalName = file.getOriginalFilename();
+        String ext = originalName != null && originalName.contains(".")
+                ? originalName.substring(originalName.lastIndexOf("."))
+                : "";
+        return user.getId() + "-" + System.currentTimeMillis() + ext;
+    }
 
-        } catch (IOException e) {
-            throw new RuntimeException("Failed to upload: " + e.getMessage());
-        }
+    // Thumbnails of the previous picture are cleared; they are regenerated in the background
+    private void updatePictureUrl(User user, String pictureUrl) {
+        transactions.executeWithoutResult(status -> userRepository.findByIdForUpdate(user.getId())
+                .ifPresent(current -> {
+                    current.setPictureUrl(pictureUrl);
+                    current.setThumbnailSmallUrl(null);
+                    current.setThumbnailLargeUrl(null);
+                }));
+        userDirectory.evict(user);
     }
 
     private UserDto convertToDto(User user) {
-        return new UserDto(
+        UserDto dto = new UserDto(
                 user.getId(),
                 user.getEmail(),
                 user.getName(),
@@ -132,6 +190,10 @@ public class UserService {
                 user.getTeamCode(),
                 user.getDepartment(),
                 user.getAccountStatus());
+
+        dto.setThumbnailSmallUrl(user.getThumbnailSmallUrl());
+        dto.setThumbnailLargeUrl(user.getThumbnailLargeUrl());
+        return dto;
     }
 
     @Transactional
@@ -139,9 +201,13 @@ public class UserService {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
+        String oldStatus = user.getAccountStatus();
         user.setActive(false);
         user.setAccountStatus("DEACTIVATED");
+        tokenRevocations.revokeAll(user);
         userRepository.save(user);
+        userDirectory.evict(user);
+        userStatsCounter.changed(oldStatus, user.getRole(), "DEACTIVATED", user.getRole());
     }
 
     @Transactional
@@ -149,9 +215,13 @@ public class UserService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
+        String oldStatus = user.getAccountStatus();
         user.setActive(false);
         user.setAccountStatus("DEACTIVATED");
+        tokenRevocations.revokeAll(user);
         user = userRepository.save(user);
+        userDirectory.evict(user);
+        userStatsCounter.changed(oldStatus, user.getRole(), "DEACTIVATED", user.getRole());
 
         return convertToDto(user);
     }
@@ -161,9 +231,12 @@ public class UserService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
+        String oldStatus = user.getAccountStatus();
         user.setActive(true);
         user.setAccountStatus("ACTIVE");
         user = userRepository.save(user);
+        userDirectory.evict(user);
+        userStatsCounter.changed(oldStatus, user.getRole(), "ACTIVE", user.getRole());
 
         return convertToDto(user);
     }
@@ -187,6 +260,9 @@ public class UserService {
             }
         }
 
+        tokenRevocations.revokeAll(user);
         userRepository.delete(user);
+        userDirectory.evict(user);
+        userStatsCounter.removed(user.getAccountStatus(), user.getRole());
     }
 }
\ No newline at end of file
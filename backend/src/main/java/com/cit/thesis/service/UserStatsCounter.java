@@ -0,0 +1,178 @@
+package com.cit.thesis.service;
+
+import com.cit.thesis.model.UserRole;
+import com.cit.thesis.repository.UserRepository;
+import com.cit.thesis.transaction.AfterCommit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Per (account status, role) user counts for the admin dashboard.
+ *
+ * When app.stats.in-memory is enabled the counts are seeded once with a
+ * GROUP BY query and then adjusted by the code paths that create, change
+ * or remove users, so reading them costs no query. Otherwise every read
+ * runs the aggregation.
+ *
+ * A commit can land before the seed query while its adjustment arrives
+ * after it, or the other way round. Each adjustment therefore carries the
+ * id of the transaction that made it, the seed query returns the snapshot
+ * it read under, and adjustments that snapshot already saw are dropped.
+ * Adjustments arriving while the query runs are held back until its
+ * snapshot is known. Callers change users inside a transaction.
+ */
+@Component
+public class UserStatsCounter {
+
+    private final UserRepository userRepository;
+    private final boolean inMemory;
+
+    private final Map<Bucket, Long> counts = new HashMap<>();
+    private final List<Adjustment> heldBack = new ArrayList<>();
+    private final Object seedLock = new Object();
+    private volatile boolean seeded;
+    private boolean seeding;
+    private Snapshot seedSnapshot;
+
+    public UserStatsCounter(UserRepository userRepository,
+            @Value("${app.stats.in-memory:false}") boolean inMemory) {
+        this.userRepository = userRepository;
+        this.inMemory = inMemory;
+    }
+
+    public Map<Bucket, Long> snapshot() {
+        if (!inMemory) {
+            return aggregate();
+        }
+        if (!seeded) {
+            seed();
+        }
+        synchronized (this) {
+            return new HashMap<>(counts);
+        }
+    }
+
+    public void added(String status, UserRole role) {
+        adjustAfterCommit(Map.of(new Bucket(status, role), 1L));
+    }
+
+    public void removed(String status, UserRole role) {
+        adjustAfterCommit(Map.of(new Bucket(status, role), -1L));
+    }
+
+    public void changed(String oldStatus, UserRole oldRole, String newStatus, UserRole newRole) {
+        if (Objects.equals(oldStatus, newStatus) && oldRole == newRole) {
+            return;
+        }
+        adjustAfterCommit(Map.of(new Bucket(oldStatus, oldRole), -1L, new Bucket(newStatus, newRole), 1L));
+    }
+
+    private void seed() {
+        synchronized (seedLock) {
+            if (seeded) {
+                return;
+            }
+            synchronized (this) {
+                seeding = true;
+            }
+
+            // Run without holding this: adjusting transactions still hold their connections
+            Map<Bucket, Long> seedCounts = new HashMap<>();
+            Snapshot snapshot = null;
+            try {
+                for (UserRepository.SnapshotStatusRoleCount row
+                        : userRepository.countByAccountStatusAndRoleWithSnapshot()) {
+                    snapshot = Snapshot.parse(row.getSnapshot());
+                    if (row.getTotal() != null) {
+                        seedCounts.put(new Bucket(row.getAccountStatus(),
+                                row.getRole() != null ? UserRole.valueOf(row.getRole()) : null), row.getTotal());
+                    }
+                }
+            } finally {
+                synchronized (this) {
+                    seeding = false;
+                    if (snapshot != null) {
+                        counts.putAll(seedCounts);
+                        seedSnapshot = snapshot;
+                        seeded = true;
+                        heldBack.forEach(this::apply);
+                    }
+                    heldBack.clear();
+                }
+            }
+        }
+    }
+
+    private void adjustAfterCommit(Map<Bucket, Long> deltas) {
+        if (!inMemory) {
+            return;
+        }
+        // Null outside a transaction: the change is already committed and the seed, if any, predates it
+        Long transactionId = TransactionSynchronizationManager.isSynchronizationActive()
+                ? userRepository.currentTransactionId()
+                : null;
+        Adjustment adjustment = new Adjustment(transactionId, deltas);
+        AfterCommit.run(() -> adjust(adjustment));
+    }
+
+    private Map<Bucket, Long> aggregate() {
+        Map<Bucket, Long> result = new HashMap<>();
+        for (UserRepository.StatusRoleCount row : userRepository.countByAccountStatusAndRole()) {
+            result.put(new Bucket(row.getAccountStatus(), row.getRole()), row.getTotal());
+        }
+        return result;
+    }
+
+    private synchronized void adjust(Adjustment adjustment) {
+        if (seeded) {
+            apply(adjustment);
+        } else if (seeding) {
+            heldBack.add(adjustment);
+        }
+        // Otherwise the seed query has not started and will see this commit
+    }
+
+    // Called holding this, once seeded
+    private void apply(Adjustment adjustment) {
+        if (adjustment.transactionId() != null && seedSnapshot.includes(adjustment.transactionId())) {
+            return;
+        }
+        adjustment.deltas().forEach((bucket, delta) -> counts.merge(bucket, delta, Long::sum));
+    }
+
+    public record Bucket(String accountStatus, UserRole role) {
+    }
+
+    private record Adjustment(Long transactionId, Map<Bucket, Long> deltas) {
+    }
+
+    /**
+     * A PostgreSQL snapshot ({@code xmin:xmax:xip,...}): transactions
+     * below xmin, and those below xmax that were not in progress, had
+     * committed (or aborted) when it was taken.
+     */
+    private record Snapshot(long xmin, long xmax, Set<Long> inProgress) {
+
+        static Snapshot parse(String text) {
+            String[] parts = text.split(":", 3);
+            Set<Long> inProgress = parts.length < 3 || parts[2].isEmpty()
+                    ? Set.of()
+                    : Arrays.stream(parts[2].split(",")).map(Long::valueOf).collect(Collectors.toSet());
+            return new Snapshot(Long.parseLong(parts[0]), Long.parseLong(parts[1]), inProgress);
+        }
+
+        boolean includes(long transactionId) {
+            return transactionId < xmin || (transactionId < xmax && !inProgress.contains(transactionId));
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.cit.thesis.tracing;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Adds the time spent in repository calls to the current request's trace.
+ */
+@Aspect
+@Component
+public class RepositoryTimingAspect {
+
+    // Repository+ so inherited CRUD methods (findById, save, ...) are matched too
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        RequestTrace trace = RequestTrace.current();
+        if (trace == null) {
+            return joinPoint.proceed();
+        }
+
+        long start = System.nanoTime();
+        trace.enter(RequestTrace.Phase.REPOSITORY);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            trace.exit(RequestTrace.Phase.REPOSITORY, System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.cit.thesis.tracing;
+
+/**
+ * Timing breakdown of the request running on the current thread.
+ *
+ * A trace is only touched by the thread serving its request, so it needs no
+ * synchronisation. Phases nest (repository calls happen inside service
+ * calls), and only the outermost call of each phase is added to its total.
+ */
+public final class RequestTrace {
+
+    public enum Phase {
+        FILTER, SERVICE, REPOSITORY
+    }
+
+    private static final ThreadLocal<RequestTrace> CURRENT = new ThreadLocal<>();
+
+    private final String requestId;
+    private final long startNanos;
+    private final long[] phaseNanos = new long[Phase.values().length];
+    private final int[] depth = new int[Phase.values().length];
+    private int repositoryCalls;
+
+    RequestTrace(String requestId, long startNanos) {
+        this.requestId = requestId;
+        this.startNanos = startNanos;
+    }
+
+    /**
+     * The trace of the current request, or null outside a request (startup,
+     * background workers).
+     */
+    public static RequestTrace current() {
+        return CURRENT.get();
+    }
+
+    static void bind(RequestTrace trace) {
+        CURRENT.set(trace);
+    }
+
+    static void unbind() {
+        CURRENT.remove();
+    }
+
+    public String getRequestId() {
+        return requestId;
+    }
+
+    long getStartNanos() {
+        return startNanos;
+    }
+
+    public void enter(Phase phase) {
+        depth[phase.ordinal()]++;
+        if (phase == Phase.REPOSITORY) {
+            repositoryCalls++;
+        }
+    }
+
+    public void exit(Phase phase, long elapsedNanos) {
+        if (--depth[phase.ordinal()] == 0) {
+            phaseNanos[phase.ordinal()] += elapsedNanos;
+        }
+    }
+
+    public long getNanos(Phase phase) {
+        return phaseNanos[phase.ordinal()];
+    }
+
+    public int getRepositoryCalls() {
+        return repositoryCalls;
+    }
+}
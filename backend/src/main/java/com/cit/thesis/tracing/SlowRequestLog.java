@@ -0,0 +1,84 @@
+package com.cit.thesis.tracing;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The slowest requests of the recent window (app.tracing.slow-window),
+ * at most app.tracing.slow-capacity of them.
+ *
+ * A new entry takes a free slot or one whose entry has left the window,
+ * otherwise it replaces the fastest entry held if it is slower. Slots are
+ * swapped with compare-and-set, so recording never blocks a request
+ * thread; a writer that keeps losing races gives up rather than spin.
+ */
+@Component
+public class SlowRequestLog {
+
+    private static final int MAX_ATTEMPTS = 8;
+
+    private final AtomicReferenceArray<Entry> entries;
+    private final Duration window;
+
+    public SlowRequestLog(@Value("${app.tracing.slow-capacity:100}") int capacity,
+            @Value("${app.tracing.slow-window:PT15M}") Duration window) {
+        this.entries = new AtomicReferenceArray<>(Math.max(1, capacity));
+        this.window = window;
+    }
+
+    public void record(Entry entry) {
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            Instant horizon = Instant.now().minus(window);
+            int victim = -1;
+            Entry victimEntry = null;
+            for (int i = 0; i < entries.length(); i++) {
+                Entry held = entries.get(i);
+                if (held == null || held.startedAt().isBefore(horizon)) {
+                    victim = i;
+                    victimEntry = held;
+                    break;
+                }
+                if (victim < 0 || held.totalMs() < victimEntry.totalMs()) {
+                    victim = i;
+                    victimEntry = held;
+                }
+            }
+
+            boolean free = victimEntry == null || victimEntry.startedAt().isBefore(horizon);
+            if (!free && victimEntry.totalMs() >= entry.totalMs()) {
+                return;
+            }
+            if (entries.compareAndSet(victim, victimEntry, entry)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Entries of the current window, slowest first.
+     */
+    public List<Entry> snapshot() {
+        Instant horizon = Instant.now().minus(window);
+        List<Entry> snapshot = new ArrayList<>(entries.length());
+        for (int i = 0; i < entries.length(); i++) {
+            Entry entry = entries.get(i);
+            if (entry != null && !entry.startedAt().isBefore(horizon)) {
+                snapshot.add(entry);
+            }
+        }
+        snapshot.sort(Comparator.comparingDouble(Entry::totalMs).reversed());
+        return snapshot;
+    }
+
+    public record Entry(String requestId, Instant startedAt, String method, String uri, int status,
+            double totalMs, double filterMs, double serviceMs, double repositoryMs,
+            int repositoryCalls, int statements) {
+    }
+}
@@ -0,0 +1,134 @@
+package com.cit.thesis.tracing;
+
+import com.cit.thesis.metrics.StatementCounter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Outermost filter: assigns the correlation ID (taken from
+ * {@code X-Request-Id} when the caller sends a sane one), puts it in the
+ * MDC and the response, and at the end records the request's phase
+ * breakdown.
+ *
+ * Requests over the slow threshold are offered to {@link SlowRequestLog},
+ * which keeps the slowest of the recent window, and are logged at WARN; a
+ * configurable fraction of the rest is logged at INFO, one key=value line
+ * each.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class TracingFilter extends OncePerRequestFilter {
+
+    public static final String REQUEST_ID_HEADER = "X-Request-Id";
+    public static final String MDC_KEY = "requestId";
+
+    private static final Logger log = LoggerFactory.getLogger(TracingFilter.class);
+
+    private final SlowRequestLog slowRequestLog;
+    private final double sampleRate;
+    private final long slowThresholdNanos;
+
+    public TracingFilter(SlowRequestLog slowRequestLog,
+            @Value("${app.tracing.sample-rate:0.01}") double sampleRate,
+            @Value("${app.tracing.slow-threshold:PT0.5S}") Duration slowThreshold) {
+        this.slowRequestLog = slowRequestLog;
+        this.sampleRate = sampleRate;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String requestId = requestId(request.getHeader(REQUEST_ID_HEADER));
+        Instant startedAt = Instant.now();
+        RequestTrace trace = new RequestTrace(requestId, System.nanoTime());
+
+        RequestTrace.bind(trace);
+        MDC.put(MDC_KEY, requestId);
+        response.setHeader(REQUEST_ID_HEADER, requestId);
+        // The only reset: everything below, the JWT filter included, counts towards this request
+        StatementCounter.reset();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            try {
+                finish(trace, startedAt, request, response);
+            } finally {
+                RequestTrace.unbind();
+                MDC.remove(MDC_KEY);
+            }
+        }
+    }
+
+    private void finish(RequestTrace trace, Instant startedAt, HttpServletRequest request,
+            HttpServletResponse response) {
+        long totalNanos = System.nanoTime() - trace.getStartNanos();
+        boolean slow = totalNanos >= slowThresholdNanos;
+        boolean sampled = !slow && sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate;
+        if (!slow && !sampled) {
+            return;
+        }
+
+        SlowRequestLog.Entry entry = new SlowRequestLog.Entry(
+                trace.getRequestId(),
+                startedAt,
+                request.getMethod(),
+                request.getRequestURI(),
+                response.getStatus(),
+                millis(totalNanos),
+                millis(trace.getNanos(RequestTrace.Phase.FILTER)),
+                millis(trace.getNanos(RequestTrace.Phase.SERVICE)),
+                millis(trace.getNanos(RequestTrace.Phase.REPOSITORY)),
+                trace.getRepositoryCalls(),
+                StatementCounter.current());
+
+        if (slow) {
+            slowRequestLog.record(entry);
+            log.warn("slow_request {}", format(entry));
+        } else {
+            log.info("request {}", format(entry));
+        }
+    }
+
+    private static String format(SlowRequestLog.Entry e) {
+        return "id=" + e.requestId()
+                + " method=" + e.method()
+                + " uri=" + e.uri()
+                + " status=" + e.status()
+                + " total_ms=" + e.totalMs()
+                + " filter_ms=" + e.filterMs()
+                + " service_ms=" + e.serviceMs()
+                + " repository_ms=" + e.repositoryMs()
+                + " repository_calls=" + e.repositoryCalls()
+                + " statements=" + e.statements();
+    }
+
+    // Accept the caller's ID only if it is short and plain, so it is safe to log and echo
+    private static String requestId(String header) {
+        if (header != null && !header.isEmpty() && header.length() <= 64
+                && header.chars().allMatch(c -> Character.isLetterOrDigit(c) || c == '-' || c == '_')) {
+            return header;
+        }
+        return UUID.randomUUID().toString();
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 10_000.0) / 100.0;
+    }
+}
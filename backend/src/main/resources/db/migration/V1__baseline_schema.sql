@@ -0,0 +1,51 @@
+-- Baseline schema, equivalent to what hibernate.ddl-auto=update used to create.
+-- Existing databases are baselined at this version and skip this script.
+
+CREATE TABLE IF NOT EXISTS users (
+    id                  BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    email               VARCHAR(255) NOT NULL UNIQUE,
+    name                VARCHAR(255) NOT NULL,
+    password_hash       VARCHAR(255),
+    role                VARCHAR(20),
+    student_id          VARCHAR(255) UNIQUE,
+    faculty_id          VARCHAR(255) UNIQUE,
+    team_code           VARCHAR(20),
+    department          VARCHAR(100),
+    auth_provider       VARCHAR(20) NOT NULL,
+    picture_url         VARCHAR(255),
+    is_profile_complete BOOLEAN NOT NULL,
+    email_verified      BOOLEAN NOT NULL,
+    active              BOOLEAN NOT NULL,
+    created_at          TIMESTAMP(6) NOT NULL,
+    approved_at         TIMESTAMP(6),
+    account_status      VARCHAR(20)
+);
+
+CREATE TABLE IF NOT EXISTS schedules (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    adviser_id     BIGINT NOT NULL,
+    available_date DATE NOT NULL,
+    start_time     TIME(6) NOT NULL,
+    end_time       TIME(6) NOT NULL,
+    is_booked      BOOLEAN NOT NULL,
+    created_at     TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS consultations (
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    student_id       BIGINT NOT NULL,
+    team_code        VARCHAR(20),
+    adviser_id       BIGINT NOT NULL,
+    schedule_id      BIGINT NOT NULL,
+    topic            VARCHAR(255) NOT NULL,
+    description      TEXT,
+    scheduled_date   DATE NOT NULL,
+    scheduled_start  TIME(6) NOT NULL,
+    scheduled_end    TIME(6) NOT NULL,
+    status           VARCHAR(20) NOT NULL,
+    adviser_notes    TEXT,
+    rejection_reason TEXT,
+    created_at       TIMESTAMP(6) NOT NULL,
+    updated_at       TIMESTAMP(6),
+    completed_at     TIMESTAMP(6)
+);
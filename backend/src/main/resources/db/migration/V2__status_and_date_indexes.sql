@@ -0,0 +1,15 @@
+-- Adviser queues filtered by status and ordered by date
+CREATE INDEX IF NOT EXISTS idx_consultations_adviser_status_date
+    ON consultations (adviser_id, status, scheduled_date);
+
+-- Student history and upcoming lists, keyset pagination on (scheduled_date, id)
+CREATE INDEX IF NOT EXISTS idx_consultations_student_date
+    ON consultations (student_id, scheduled_date, id);
+
+-- Adviser schedule listings, overlap checks and open-slot lookups
+CREATE INDEX IF NOT EXISTS idx_schedules_adviser_date_booked
+    ON schedules (adviser_id, available_date, is_booked);
+
+-- Admin user lists and counters filtered by account status
+CREATE INDEX IF NOT EXISTS idx_users_account_status
+    ON users (account_status);
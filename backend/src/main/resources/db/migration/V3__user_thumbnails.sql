@@ -0,0 +1,3 @@
+-- Square avatar thumbnails generated in the background after an upload
+ALTER TABLE users ADD COLUMN IF NOT EXISTS thumbnail_small_url VARCHAR(255);
+ALTER TABLE users ADD COLUMN IF NOT EXISTS thumbnail_large_url VARCHAR(255);
@@ -0,0 +1,28 @@
+-- Raised whenever all of a user's tokens are revoked (deactivation, deletion); access tokens
+-- carry the epoch they were issued under and are refused once it is behind
+ALTER TABLE users ADD COLUMN IF NOT EXISTS token_epoch INTEGER NOT NULL DEFAULT 0;
+
+-- Rotating refresh tokens, stored as SHA-256 digests. Every refresh marks the presented token
+-- used and issues the next one in the same family; a used token coming back revokes the family
+CREATE TABLE IF NOT EXISTS refresh_tokens (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id     BIGINT NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    token_hash  VARCHAR(64) NOT NULL UNIQUE,
+    family      UUID NOT NULL,
+    expires_at  TIMESTAMP(6) NOT NULL,
+    used_at     TIMESTAMP(6),
+    revoked_at  TIMESTAMP(6),
+    created_at  TIMESTAMP(6) NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_family ON refresh_tokens (family);
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_user ON refresh_tokens (user_id);
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_expires_at ON refresh_tokens (expires_at);
+
+-- Access tokens revoked before they expire (logout), kept until they would have expired
+CREATE TABLE IF NOT EXISTS revoked_tokens (
+    jti         UUID PRIMARY KEY,
+    expires_at  TIMESTAMP(6) NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_revoked_tokens_expires_at ON revoked_tokens (expires_at);
@@ -0,0 +1,138 @@
+package com.cit.thesis.controller;
+
+import com.cit.thesis.model.Schedule;
+import com.cit.thesis.model.User;
+import com.cit.thesis.model.UserRole;
+import com.cit.thesis.repository.ScheduleRepository;
+import com.cit.thesis.repository.UserRepository;
+import com.cit.thesis.security.JwtUtil;
+import com.cit.thesis.support.EmbeddedDatabases;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Hundreds of students booking the same slot at the same moment, through
+ * the HTTP API against a real PostgreSQL: exactly one booking may win.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class BookConsultationRaceTest {
+
+    private static final int STUDENTS = 200;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        EmbeddedDatabases.usePrimary(registry);
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ScheduleRepository scheduleRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void exactlyOneStudentGetsTheSlot() throws Exception {
+        User adviser = userRepository.save(user("race-adviser@cit.edu", UserRole.FACULTY_ADVISER, null));
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < STUDENTS; i++) {
+            User student = userRepository.save(user("race-student" + i + "@cit.edu", UserRole.STUDENT_REP,
+                    "RACE-" + i));
+            tokens.add(jwtUtil.generateToken(student.getId(), student.getEmail(), student.getRole().name(), 0));
+        }
+
+        Schedule slot = new Schedule();
+        slot.setAdviserId(adviser.getId());
+        slot.setAvailableDate(LocalDate.now().plusDays(1));
+        slot.setStartTime(LocalTime.of(9, 0));
+        slot.setEndTime(LocalTime.of(9, 30));
+        slot = scheduleRepository.save(slot);
+
+        String body = "{\"scheduleId\":" + slot.getId() + ",\"topic\":\"Chapter 1\",\"description\":\"Race\"}";
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+
+        // Every request is built and waiting before the gate opens
+        CountDownLatch gate = new CountDownLatch(1);
+        List<Future<Integer>> statuses = new ArrayList<>();
+        try (ExecutorService students = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (String token : tokens) {
+                HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port
+                                + "/api/consultations/book"))
+                        .timeout(Duration.ofSeconds(60))
+                        .header("Authorization", "Bearer " + token)
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build();
+                statuses.add(students.submit(() -> {
+                    gate.await();
+                    return http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                }));
+            }
+            gate.countDown();
+        }
+
+        List<Integer> codes = new ArrayList<>();
+        for (Future<Integer> status : statuses) {
+            codes.add(status.get());
+        }
+        Map<Integer, Long> byStatus = codes.stream()
+                .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+        assertThat(byStatus).containsOnlyKeys(200, 409);
+        assertThat(byStatus.get(200)).isEqualTo(1L);
+        assertThat(byStatus.get(409)).isEqualTo(STUDENTS - 1L);
+
+        // The slot flag and the consultations table agree on the single winner
+        assertThat(jdbcTemplate.queryForObject("SELECT is_booked FROM schedules WHERE id = ?",
+                Boolean.class, slot.getId())).isTrue();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM consultations WHERE schedule_id = ?",
+                Long.class, slot.getId())).isEqualTo(1L);
+    }
+
+    private static User user(String email, UserRole role, String teamCode) {
+        User user = new User();
+        user.setEmail(email);
+        user.setName(email);
+        user.setRole(role);
+        user.setTeamCode(teamCode);
+        user.setIsProfileComplete(true);
+        user.setEmailVerified(true);
+        return user;
+    }
+}
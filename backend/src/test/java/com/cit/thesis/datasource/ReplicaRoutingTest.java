@@ -0,0 +1,99 @@
+package com.cit.thesis.datasource;
+
+import com.cit.thesis.support.EmbeddedDatabases;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Read/write routing with two embedded servers standing in for the
+ * primary and the replica. Each transaction reports the port of the
+ * server that answered it.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ReplicaRoutingTest {
+
+    @DynamicPropertySource
+    static void databases(DynamicPropertyRegistry registry) {
+        EmbeddedDatabases.usePrimary(registry);
+
+        // Nothing replicates here, so the stand-in gets the schema on its own
+        EmbeddedPostgres replica = EmbeddedDatabases.replica();
+        Flyway.configure()
+                .dataSource(replica.getPostgresDatabase())
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+        registry.add("SPRING_DATASOURCE_REPLICA_URL", () -> EmbeddedDatabases.jdbcUrl(replica));
+        registry.add("SPRING_DATASOURCE_REPLICA_USERNAME", () -> "postgres");
+        registry.add("SPRING_DATASOURCE_REPLICA_PASSWORD", () -> "");
+        // Long enough that the window cannot lapse mid-test
+        registry.add("REPLICA_READ_YOUR_WRITES", () -> "PT1M");
+    }
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void signOut() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToTheReplica() {
+        signIn("reader@cit.edu");
+
+        assertThat(serverPort(true)).isEqualTo(EmbeddedDatabases.replica().getPort());
+    }
+
+    @Test
+    void writesGoToThePrimary() {
+        signIn("writer@cit.edu");
+
+        assertThat(serverPort(false)).isEqualTo(EmbeddedDatabases.primary().getPort());
+    }
+
+    @Test
+    void readsAfterOwnWriteStayOnThePrimary() {
+        signIn("author@cit.edu");
+        serverPort(false);
+
+        assertThat(serverPort(true)).isEqualTo(EmbeddedDatabases.primary().getPort());
+
+        // Only the writer is pinned; everyone else keeps reading from the replica
+        signIn("bystander@cit.edu");
+        assertThat(serverPort(true)).isEqualTo(EmbeddedDatabases.replica().getPort());
+    }
+
+    private int serverPort(boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(readOnly);
+        Integer port = transaction.execute(status ->
+                jdbcTemplate.queryForObject("SELECT inet_server_port()", Integer.class));
+        return port != null ? port : -1;
+    }
+
+    private static void signIn(String email) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(email, null, List.of()));
+    }
+}
@@ -0,0 +1,128 @@
+package com.cit.thesis.security;
+
+import com.cit.thesis.model.User;
+import com.cit.thesis.model.UserRole;
+import com.cit.thesis.repository.UserRepository;
+import com.cit.thesis.support.EmbeddedDatabases;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Revocation through the HTTP API: tokens of a removed account stay
+ * refused, while a new account under the same email signs in normally.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class TokenRevocationsTest {
+
+    private static final String EMAIL = "rejected-adviser@cit.edu";
+    private static final String PASSWORD = "correct-horse-battery";
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        EmbeddedDatabases.usePrimary(registry);
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient http = HttpClient.newHttpClient();
+
+    @Test
+    void reRegisteringARejectedEmailGetsWorkingTokens() throws Exception {
+        // Register and ask to become an adviser, which leaves the account pending
+        String registered = register().path("token").asText();
+        HttpResponse<String> profile = post("/api/auth/complete-profile", registered, Map.of(
+                "role", "FACULTY_ADVISER", "facultyId", "F-REJECT", "department", "IT Department"));
+        assertThat(profile.statusCode()).isEqualTo(200);
+        JsonNode pending = objectMapper.readTree(profile.body());
+        String pendingToken = pending.path("token").asText();
+        long rejectedId = pending.path("user").path("id").asLong();
+        assertThat(get("/api/users/profile", pendingToken).statusCode()).isEqualTo(200);
+
+        // The admin rejects the request, which deletes the account
+        User admin = new User();
+        admin.setEmail("revocation-admin@cit.edu");
+        admin.setName("Admin");
+        admin.setRole(UserRole.ADMIN);
+        admin.setIsProfileComplete(true);
+        admin = userRepository.save(admin);
+        String adminToken = jwtUtil.generateToken(admin.getId(), admin.getEmail(), "ADMIN", 0);
+        assertThat(post("/api/admin/users/" + rejectedId + "/reject", adminToken, Map.of()).statusCode())
+                .isEqualTo(200);
+        assertThat(get("/api/users/profile", pendingToken).statusCode()).isEqualTo(401);
+
+        // Same email, new account: its tokens work, the old ones stay revoked
+        JsonNode again = register();
+        assertThat(again.path("user").path("id").asLong()).isNotEqualTo(rejectedId);
+        assertThat(get("/api/users/profile", again.path("token").asText()).statusCode()).isEqualTo(200);
+        assertThat(get("/api/users/profile", pendingToken).statusCode()).isEqualTo(401);
+    }
+
+    @Test
+    void loggingOutRevokesTheBearerToken() throws Exception {
+        String token = register("signed-out@cit.edu").path("token").asText();
+        assertThat(get("/api/users/profile", token).statusCode()).isEqualTo(200);
+
+        assertThat(post("/api/auth/logout", token, Map.of()).statusCode()).isEqualTo(204);
+        assertThat(get("/api/users/profile", token).statusCode()).isEqualTo(401);
+        assertThat(post("/api/auth/complete-profile", token, Map.of(
+                "role", "FACULTY_ADVISER", "facultyId", "F-LOGOUT", "department", "IT Department")).statusCode())
+                .isEqualTo(401);
+    }
+
+    private JsonNode register() throws Exception {
+        return register(EMAIL);
+    }
+
+    private JsonNode register(String email) throws Exception {
+        HttpResponse<String> response = post("/api/auth/register", null, Map.of(
+                "email", email, "name", "Rejected Adviser", "password", PASSWORD));
+        assertThat(response.statusCode()).isEqualTo(200);
+        return objectMapper.readTree(response.body());
+    }
+
+    private HttpResponse<String> get(String path, String token) throws Exception {
+        return http.send(request(path, token).GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> post(String path, String token, Map<String, String> body) throws Exception {
+        return http.send(request(path, token)
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+}
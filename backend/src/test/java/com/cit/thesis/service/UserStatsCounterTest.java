@@ -0,0 +1,95 @@
+package com.cit.thesis.service;
+
+import com.cit.thesis.model.User;
+import com.cit.thesis.model.UserRole;
+import com.cit.thesis.repository.UserRepository;
+import com.cit.thesis.support.EmbeddedDatabases;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The in-memory counts are seeded while users are being created, so some
+ * commits straddle the seed query; none may be missed or counted twice.
+ */
+@SpringBootTest(properties = "USER_STATS_IN_MEMORY=true")
+@ActiveProfiles("test")
+class UserStatsCounterTest {
+
+    private static final int WRITERS = 4;
+    private static final int USERS_PER_WRITER = 50;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        EmbeddedDatabases.usePrimary(registry);
+    }
+
+    @Autowired
+    private UserStatsCounter userStatsCounter;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void seedingWhileUsersAreCreatedCountsEveryUserOnce() throws Exception {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        CountDownLatch halfway = new CountDownLatch(WRITERS);
+
+        try (ExecutorService writers = Executors.newFixedThreadPool(WRITERS)) {
+            for (int w = 0; w < WRITERS; w++) {
+                int writer = w;
+                writers.submit(() -> {
+                    for (int i = 0; i < USERS_PER_WRITER; i++) {
+                        if (i == USERS_PER_WRITER / 2) {
+                            halfway.countDown();
+                        }
+                        User user = new User();
+                        user.setEmail("stats-" + writer + "-" + i + "@cit.edu");
+                        user.setName("Stats " + i);
+                        user.setRole(i % 2 == 0 ? UserRole.STUDENT_REP : null);
+                        transaction.executeWithoutResult(status -> {
+                            User saved = userRepository.save(user);
+                            userStatsCounter.added(saved.getAccountStatus(), saved.getRole());
+                        });
+                    }
+                    return null;
+                });
+            }
+            halfway.await();
+            userStatsCounter.snapshot();
+        }
+
+        assertThat(userStatsCounter.snapshot()).isEqualTo(countInDatabase());
+    }
+
+    private Map<UserStatsCounter.Bucket, Long> countInDatabase() {
+        Map<UserStatsCounter.Bucket, Long> counts = new HashMap<>();
+        jdbcTemplate.query("SELECT account_status, role, COUNT(*) FROM users GROUP BY account_status, role",
+                row -> {
+                    String role = row.getString(2);
+                    counts.put(new UserStatsCounter.Bucket(row.getString(1),
+                            role != null ? UserRole.valueOf(role) : null), row.getLong(3));
+                });
+        return counts;
+    }
+}
@@ -0,0 +1,68 @@
+package com.cit.thesis.support;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.test.context.DynamicPropertyRegistry;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Embedded PostgreSQL servers for the integration tests, started on first
+ * use and shared by every test context in the JVM. The application runs
+ * its own Flyway migrations against whichever server it is pointed at.
+ */
+public final class EmbeddedDatabases {
+
+    private static final String USER = "postgres";
+    private static final String DATABASE = "postgres";
+
+    private static EmbeddedPostgres primary;
+    private static EmbeddedPostgres replica;
+
+    private EmbeddedDatabases() {
+    }
+
+    public static synchronized EmbeddedPostgres primary() {
+        if (primary == null) {
+            primary = start();
+        }
+        return primary;
+    }
+
+    // A second, independent server standing in for a read replica
+    public static synchronized EmbeddedPostgres replica() {
+        if (replica == null) {
+            replica = start();
+        }
+        return replica;
+    }
+
+    /**
+     * Points the application's datasource at the primary server.
+     */
+    public static void usePrimary(DynamicPropertyRegistry registry) {
+        registry.add("SPRING_DATASOURCE_URL", () -> jdbcUrl(primary()));
+        registry.add("SPRING_DATASOURCE_USERNAME", () -> USER);
+        registry.add("SPRING_DATASOURCE_PASSWORD", () -> "");
+    }
+
+    public static String jdbcUrl(EmbeddedPostgres postgres) {
+        return postgres.getJdbcUrl(USER, DATABASE);
+    }
+
+    private static EmbeddedPostgres start() {
+        try {
+            EmbeddedPostgres postgres = EmbeddedPostgres.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    postgres.close();
+                } catch (IOException ignored) {
+                    // The data directory is temporary
+                }
+            }));
+            return postgres;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start embedded PostgreSQL", e);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.cit.thesis.benchmark;
+
+import com.cit.thesis.datasource.ReadYourWrites;
+import com.cit.thesis.dto.ConsultationDto;
+import com.cit.thesis.dto.FieldSelection;
+import com.cit.thesis.model.User;
+import com.cit.thesis.repository.UserRepository;
+import com.cit.thesis.service.AvailabilityFeed;
+import com.cit.thesis.service.ConsultationService;
+import com.cit.thesis.service.ContentVersions;
+import com.cit.thesis.service.OpenSlotIndex;
+import com.cit.thesis.service.UserDirectory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO mapping for an adviser's consultation list, including the
+ * batched student/adviser lookup through {@link UserDirectory}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConsultationMappingBenchmark {
+
+    @Param({ "10", "100", "1000" })
+    public int consultations;
+
+    private ConsultationService consultationService;
+
+    @Setup
+    public void setUp() {
+        int studentCount = Math.max(1, consultations / 4);
+
+        List<User> users = new ArrayList<>(Fixtures.students(studentCount));
+        users.add(Fixtures.adviser());
+
+        UserRepository userRepository = InMemoryRepositories.users(users);
+        // No replica: nothing is tracked
+        ReadYourWrites readYourWrites = new ReadYourWrites("", Duration.ZERO);
+        UserDirectory userDirectory = new UserDirectory(userRepository, readYourWrites, 10_000, Duration.ofHours(1));
+
+        consultationService = new ConsultationService(
+                InMemoryRepositories.consultations(Fixtures.consultations(consultations, studentCount)),
+                InMemoryRepositories.schedules(),
+                userDirectory,
+                new OpenSlotIndex(),
+                new AvailabilityFeed(new SimpleMeterRegistry(), 512, 64, 1000, 1,
+                        Duration.ofMinutes(30), Duration.ofMinutes(1)),
+                new ContentVersions(userDirectory, readYourWrites));
+    }
+
+    @Benchmark
+    public List<ConsultationDto> getConsultationsForAdviser() {
+        return consultationService.getConsultationsForAdviser(Fixtures.ADVISER_EMAIL, FieldSelection.ALL);
+    }
+}
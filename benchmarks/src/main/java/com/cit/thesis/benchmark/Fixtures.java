@@ -0,0 +1,102 @@
+package com.cit.thesis.benchmark;
+
+import com.cit.thesis.model.Consultation;
+import com.cit.thesis.model.ConsultationStatus;
+import com.cit.thesis.model.User;
+import com.cit.thesis.model.UserRole;
+import com.cit.thesis.repository.UserRepository;
+import com.cit.thesis.security.JwtUtil;
+import com.cit.thesis.security.TokenRevocations;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sample data shared by the benchmarks.
+ */
+final class Fixtures {
+
+    static final String JWT_SECRET = "benchmark-secret-key-that-is-long-enough-for-hs256-signing";
+    static final long JWT_EXPIRATION = 86_400_000L;
+
+    static final long ADVISER_ID = 1L;
+    static final String ADVISER_EMAIL = "adviser@cit.edu";
+    static final long FIRST_STUDENT_ID = 100L;
+
+    private Fixtures() {
+    }
+
+    // JwtUtil is normally wired by Spring; set the @Value fields and run its @PostConstruct
+    static JwtUtil jwtUtil() {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", JWT_SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", JWT_EXPIRATION);
+        ReflectionTestUtils.invokeMethod(jwtUtil, "init");
+        return jwtUtil;
+    }
+
+    // Nothing revoked and not started, so every check is answered by the empty bloom filter
+    static TokenRevocations tokenRevocations(UserRepository userRepository) {
+        return new TokenRevocations(userRepository, InMemoryRepositories.refreshTokens(),
+                InMemoryRepositories.revokedTokens(), new SimpleMeterRegistry(), 100_000,
+                Duration.ofHours(1), JWT_EXPIRATION);
+    }
+
+    static User user(long id, String email, UserRole role) {
+        User user = new User();
+        user.setId(id);
+        user.setEmail(email);
+        user.setName("User " + id);
+        user.setRole(role);
+        user.setPictureUrl("https://example.com/pictures/" + id + ".png");
+        user.setTeamCode(role == UserRole.STUDENT_REP ? "TEAM-" + (id % 20) : null);
+        user.setIsProfileComplete(true);
+        user.setAccountStatus("ACTIVE");
+        user.setCreatedAt(LocalDateTime.now());
+        return user;
+    }
+
+    static User adviser() {
+        return user(ADVISER_ID, ADVISER_EMAIL, UserRole.FACULTY_ADVISER);
+    }
+
+    static List<User> students(int count) {
+        List<User> students = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long id = FIRST_STUDENT_ID + i;
+            students.add(user(id, "student" + id + "@cit.edu", UserRole.STUDENT_REP));
+        }
+        return students;
+    }
+
+    static List<Consultation> consultations(int count, int studentCount) {
+        ConsultationStatus[] statuses = ConsultationStatus.values();
+        LocalDate today = LocalDate.now();
+
+        List<Consultation> consultations = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Consultation c = new Consultation();
+            c.setId((long) i + 1);
+            c.setStudentId(FIRST_STUDENT_ID + (i % studentCount));
+            c.setTeamCode("TEAM-" + (i % 20));
+            c.setAdviserId(ADVISER_ID);
+            c.setScheduleId((long) i + 1);
+            c.setTopic("Chapter " + (i % 5 + 1) + " review");
+            c.setDescription("Discuss the methodology and the results of the latest test run.");
+            c.setScheduledDate(today.plusDays(i % 30));
+            c.setStartTime(LocalTime.of(8 + i % 8, 0));
+            c.setScheduledEnd(LocalTime.of(9 + i % 8, 0));
+            c.setStatus(statuses[i % statuses.length]);
+            c.setAdviserNotes(i % 3 == 0 ? "Bring the updated manuscript." : null);
+            c.setCreatedAt(LocalDateTime.now());
+            consultations.add(c);
+        }
+        return consultations;
+    }
+}
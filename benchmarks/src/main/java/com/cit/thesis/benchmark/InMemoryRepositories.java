@@ -0,0 +1,98 @@
+package com.cit.thesis.benchmark;
+
+import com.cit.thesis.model.Consultation;
+import com.cit.thesis.model.User;
+import com.cit.thesis.repository.ConsultationRepository;
+import com.cit.thesis.repository.RefreshTokenRepository;
+import com.cit.thesis.repository.RevokedTokenRepository;
+import com.cit.thesis.repository.ScheduleRepository;
+import com.cit.thesis.repository.UserRepository;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * In-memory stand-ins for the Spring Data repositories, so the benchmarks
+ * measure service code instead of a database round trip.
+ *
+ * Only the methods the benchmarked paths call are implemented; anything
+ * else fails loudly.
+ */
+final class InMemoryRepositories {
+
+    private InMemoryRepositories() {
+    }
+
+    static UserRepository users(Collection<User> users) {
+        Map<Long, User> byId = new ConcurrentHashMap<>();
+        Map<String, User> byEmail = new ConcurrentHashMap<>();
+        for (User user : users) {
+            byId.put(user.getId(), user);
+            byEmail.put(user.getEmail(), user);
+        }
+
+        return fake(UserRepository.class, Map.of(
+                "findByEmail", args -> Optional.ofNullable(byEmail.get((String) args[0])),
+                "findById", args -> Optional.ofNullable(byId.get((Long) args[0])),
+                "findAllById", args -> {
+                    List<User> found = new ArrayList<>();
+                    for (Object id : (Iterable<?>) args[0]) {
+                        User user = byId.get((Long) id);
+                        if (user != null) {
+                            found.add(user);
+                        }
+                    }
+                    return found;
+                }));
+    }
+
+    static ConsultationRepository consultations(List<Consultation> consultations) {
+        return fake(ConsultationRepository.class, Map.of(
+                "findByAdviserIdOrderByScheduledDateDesc", args -> consultations.stream()
+                        .filter(c -> c.getAdviserId().equals(args[0]))
+                        .toList()));
+    }
+
+    static ScheduleRepository schedules() {
+        return fake(ScheduleRepository.class, Map.of());
+    }
+
+    // Issued tokens are dropped; the login benchmark never reads them back
+    static RefreshTokenRepository refreshTokens() {
+        return fake(RefreshTokenRepository.class, Map.of("save", args -> args[0]));
+    }
+
+    static RevokedTokenRepository revokedTokens() {
+        return fake(RevokedTokenRepository.class, Map.of());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T fake(Class<T> type, Map<String, Function<Object[], Object>> methods) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "toString":
+                            return "InMemory" + type.getSimpleName();
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        default:
+                            break;
+                    }
+
+                    Function<Object[], Object> impl = methods.get(method.getName());
+                    if (impl == null) {
+                        throw new UnsupportedOperationException(
+                                type.getSimpleName() + "." + method.getName() + " is not faked");
+                    }
+                    return impl.apply(args);
+                });
+    }
+}
@@ -0,0 +1,79 @@
+package com.cit.thesis.benchmark;
+
+import com.cit.thesis.dto.ConsultationDto;
+import com.cit.thesis.dto.PagedResponse;
+import com.cit.thesis.model.Consultation;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response serialization with an ObjectMapper configured the way Spring
+ * Boot configures the one used by the controllers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({ "20", "100" })
+    public int pageSize;
+
+    private ObjectWriter writer;
+    private ConsultationDto consultation;
+    private List<ConsultationDto> consultations;
+    private PagedResponse<ConsultationDto> page;
+
+    @Setup
+    public void setUp() {
+        // Same filter provider as JacksonConfig; the DTOs carry @JsonFilter for fields=
+        ObjectMapper mapper = Jackson2ObjectMapperBuilder.json()
+                .filters(new SimpleFilterProvider().setFailOnUnknownId(false))
+                .build();
+        writer = mapper.writer();
+
+        consultations = new ArrayList<>(pageSize);
+        for (Consultation c : Fixtures.consultations(pageSize, 10)) {
+            consultations.add(new ConsultationDto(c.getId(), c.getStudentId(), "User " + c.getStudentId(),
+                    c.getTeamCode(), c.getAdviserId(), "User " + c.getAdviserId(), c.getTopic(),
+                    c.getDescription(), c.getScheduledDate(), c.getStartTime(), c.getScheduledEnd(),
+                    c.getStatus().name(), c.getAdviserNotes(), c.getRejectionReason()));
+        }
+        consultation = consultations.get(0);
+        page = new PagedResponse<>(consultations, pageSize, true, "MjAyNi0wMS0wMXw0Mg", null);
+    }
+
+    @Benchmark
+    public byte[] consultation() throws Exception {
+        return writer.writeValueAsBytes(consultation);
+    }
+
+    @Benchmark
+    public byte[] consultationList() throws Exception {
+        return writer.writeValueAsBytes(consultations);
+    }
+
+    @Benchmark
+    public byte[] pagedResponse() throws Exception {
+        return writer.writeValueAsBytes(page);
+    }
+}
@@ -0,0 +1,68 @@
+package com.cit.thesis.benchmark;
+
+import com.cit.thesis.security.JwtAuthenticationFilter;
+import com.cit.thesis.security.JwtUtil;
+import com.cit.thesis.security.VerifiedTokenCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The JWT filter as it runs on every authenticated request, with the
+ * verified-token cache enabled (repeat token) and disabled (cold token),
+ * including the in-memory revocation check.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+    @Param({ "true", "false" })
+    public boolean cached;
+
+    private JwtAuthenticationFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() {
+        JwtUtil jwtUtil = Fixtures.jwtUtil();
+        filter = new JwtAuthenticationFilter(jwtUtil, new VerifiedTokenCache(cached ? 10_000 : 0),
+                Fixtures.tokenRevocations(InMemoryRepositories.users(List.of(Fixtures.adviser()))));
+
+        String token = jwtUtil.generateToken(Fixtures.ADVISER_ID, Fixtures.ADVISER_EMAIL, "FACULTY_ADVISER", 0);
+        request = new MockHttpServletRequest("GET", "/api/consultations/pending");
+        request.setServletPath("/api/consultations/pending");
+        request.addHeader("Authorization", "Bearer " + token);
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public Object doFilter() throws Exception {
+        // A fresh chain per call; MockFilterChain only accepts one invocation
+        filter.doFilter(request, response, new MockFilterChain());
+        Object authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        // The filter skips requests that already carry an authentication
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+}
@@ -0,0 +1,82 @@
+package com.cit.thesis.benchmark;
+
+import com.cit.thesis.datasource.ReadYourWrites;
+import com.cit.thesis.dto.AuthResponse;
+import com.cit.thesis.dto.LoginRequest;
+import com.cit.thesis.model.User;
+import com.cit.thesis.model.UserRole;
+import com.cit.thesis.repository.UserRepository;
+import com.cit.thesis.security.GoogleTokenVerifier;
+import com.cit.thesis.service.AuthService;
+import com.cit.thesis.service.RefreshTokenService;
+import com.cit.thesis.service.UserDirectory;
+import com.cit.thesis.service.UserStatsCounter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import com.google.api.client.http.javanet.NetHttpTransport;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Email/password login end to end: user lookup, BCrypt check (default
+ * strength, same as SecurityConfig) and issue of the access and refresh
+ * tokens.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordCheckBenchmark {
+
+    private static final String EMAIL = "student@cit.edu";
+    private static final String PASSWORD = "correct horse battery staple";
+
+    private AuthService authService;
+    private LoginRequest request;
+
+    @Setup
+    public void setUp() {
+        BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+
+        User user = Fixtures.user(Fixtures.FIRST_STUDENT_ID, EMAIL, UserRole.STUDENT_REP);
+        user.setPasswordHash(passwordEncoder.encode(PASSWORD));
+
+        UserRepository userRepository = InMemoryRepositories.users(List.of(user));
+        authService = new AuthService(
+                userRepository,
+                new UserDirectory(userRepository, new ReadYourWrites("", Duration.ZERO), 10_000, Duration.ofHours(1)),
+                new UserStatsCounter(userRepository, false),
+                passwordEncoder,
+                Fixtures.jwtUtil(),
+                // Not started, so it never fetches keys; the email login doesn't use it
+                new GoogleTokenVerifier(new NetHttpTransport(), "benchmark-client-id",
+                        "http://localhost/certs", Duration.ofMinutes(10)),
+                new RefreshTokenService(InMemoryRepositories.refreshTokens(), Duration.ofDays(14),
+                        Duration.ofSeconds(10)),
+                Fixtures.tokenRevocations(userRepository),
+                TransactionOperations.withoutTransaction());
+
+        request = new LoginRequest();
+        request.setEmail(EMAIL);
+        request.setPassword(PASSWORD);
+    }
+
+    @Benchmark
+    public AuthResponse loginWithEmail() {
+        return authService.loginWithEmail(request);
+    }
+}
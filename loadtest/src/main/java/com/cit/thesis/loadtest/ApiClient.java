@@ -0,0 +1,207 @@
+package com.cit.thesis.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The API as one signed-in user sees it, the way the web client calls it:
+ * bearer token on every request and If-None-Match on the polled lists.
+ * Every call is timed into {@link Stats} under its operation name.
+ */
+final class ApiClient {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final int LOGIN_ATTEMPTS = 20;
+
+    record Slot(long id, long adviserId) {
+    }
+
+    record Response(int status, String body, String etag, long retryAfterSeconds) {
+    }
+
+    private final HttpClient http;
+    private final URI base;
+    private final ObjectMapper json;
+    private Stats stats;
+
+    private String token;
+    // Last 200 of each polled list, replayed on 304
+    private String availableEtag;
+    private List<Slot> available = List.of();
+    private String upcomingEtag;
+    private String pendingEtag;
+    private List<Long> pending = List.of();
+
+    ApiClient(HttpClient http, URI base, ObjectMapper json, Stats stats) {
+        this.http = http;
+        this.base = base;
+        this.json = json;
+        this.stats = stats;
+    }
+
+    // Later calls are recorded here, e.g. once an untimed setup phase is over
+    void recordInto(Stats stats) {
+        this.stats = stats;
+    }
+
+    /**
+     * Signs in, waiting out 429s as the web client would; false if the
+     * account never got a token.
+     */
+    boolean login(String email, String password) throws InterruptedException {
+        for (int attempt = 0; attempt < LOGIN_ATTEMPTS; attempt++) {
+            Response response = send("login", post("/auth/login", Map.of("email", email, "password", password)));
+            if (response.status() == 200) {
+                token = read(response).path("token").asText();
+                return true;
+            }
+            if (response.status() != 429) {
+                return false;
+            }
+            Thread.sleep(Duration.ofSeconds(response.retryAfterSeconds()));
+        }
+        return false;
+    }
+
+    // Open slots in the order the API lists them (earliest first)
+    List<Slot> available() {
+        Response response = send("available", conditionalGet("/schedules/available", availableEtag));
+        if (response.status() == 200) {
+            List<Slot> slots = new ArrayList<>();
+            for (JsonNode slot : read(response)) {
+                slots.add(new Slot(slot.path("id").asLong(), slot.path("adviserId").asLong()));
+            }
+            available = slots;
+            availableEtag = response.etag();
+        }
+        return available;
+    }
+
+    void upcoming() {
+        Response response = send("upcoming", conditionalGet("/consultations/upcoming", upcomingEtag));
+        if (response.status() == 200) {
+            upcomingEtag = response.etag();
+        }
+    }
+
+    /**
+     * Returns the status: 200 booked, 409 the slot was taken first.
+     */
+    int book(long scheduleId) {
+        return send("book", post("/consultations/book",
+                Map.of("scheduleId", scheduleId, "topic", "Load test", "description", "Synthetic booking")))
+                .status();
+    }
+
+    // 30-minute slots, 8-12 and 13-17, on the weekdays of the seven days from the given date
+    int publishWeek(LocalDate from) {
+        Response response = send("publish", post("/schedules/recurring", Map.of(
+                "startDate", from.toString(),
+                "endDate", from.plusDays(6).toString(),
+                "daysOfWeek", List.of("MONDAY", "TUESDAY", "WEDNESDAY", "THURSDAY", "FRIDAY"),
+                "windows", List.of(
+                        Map.of("startTime", "08:00", "endTime", "12:00"),
+                        Map.of("startTime", "13:00", "endTime", "17:00")),
+                "slotMinutes", 30)));
+        return response.status() == 200 ? read(response).path("created").size() : 0;
+    }
+
+    List<Long> pending() {
+        Response response = send("pending", conditionalGet("/consultations/pending", pendingEtag));
+        if (response.status() == 200) {
+            List<Long> ids = new ArrayList<>();
+            for (JsonNode consultation : read(response)) {
+                ids.add(consultation.path("id").asLong());
+            }
+            pending = ids;
+            pendingEtag = response.etag();
+        }
+        return pending;
+    }
+
+    boolean approve(long consultationId) {
+        return send("approve", post("/consultations/" + consultationId + "/approve", Map.of())).status() == 200;
+    }
+
+    boolean reject(long consultationId) {
+        return send("reject", post("/consultations/" + consultationId + "/reject",
+                Map.of("rejectionReason", "Load test: slot needed elsewhere"))).status() == 200;
+    }
+
+    private HttpRequest.Builder request(String path) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(base.resolve("/api" + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Accept", "application/json");
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private HttpRequest conditionalGet(String path, String etag) {
+        HttpRequest.Builder builder = request(path).GET();
+        if (etag != null) {
+            builder.header("If-None-Match", etag);
+        }
+        return builder.build();
+    }
+
+    private HttpRequest post(String path, Object body) {
+        try {
+            return request(path)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(json.writeValueAsString(body)))
+                    .build();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not serialize request body", e);
+        }
+    }
+
+    private Response send(String operation, HttpRequest request) {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+            stats.record(operation, outcome(response.statusCode()), System.nanoTime() - start);
+            return new Response(response.statusCode(), response.body(),
+                    response.headers().firstValue("ETag").orElse(null),
+                    response.headers().firstValue("Retry-After").map(Long::parseLong).orElse(1L));
+        } catch (IOException e) {
+            stats.record(operation, Stats.Outcome.ERROR, System.nanoTime() - start);
+            return new Response(0, "", null, 1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Response(0, "", null, 1);
+        }
+    }
+
+    private JsonNode read(Response response) {
+        try {
+            return json.readTree(response.body());
+        } catch (IOException e) {
+            throw new IllegalStateException("Unreadable response body", e);
+        }
+    }
+
+    private static Stats.Outcome outcome(int status) {
+        if (status >= 200 && status < 300) {
+            return Stats.Outcome.OK;
+        }
+        return switch (status) {
+            case 304 -> Stats.Outcome.NOT_MODIFIED;
+            case 409 -> Stats.Outcome.CONFLICT;
+            case 429 -> Stats.Outcome.THROTTLED;
+            default -> Stats.Outcome.ERROR;
+        };
+    }
+}
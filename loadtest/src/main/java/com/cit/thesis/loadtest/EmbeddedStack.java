@@ -0,0 +1,96 @@
+package com.cit.thesis.loadtest;
+
+import com.cit.thesis.ThesisConsultationApplication;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.Banner;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.util.List;
+
+/**
+ * A throwaway PostgreSQL with the schema and synthetic users, and the
+ * backend on a random port in the same JVM.
+ *
+ * The app runs with its own application.properties; only what it needs
+ * from the environment is supplied, plus limits that would otherwise
+ * measure this harness instead of the app: every synthetic user signs
+ * in from the same address, and nothing should reach Google or Supabase.
+ */
+final class EmbeddedStack implements AutoCloseable {
+
+    private static final String USER = "postgres";
+
+    private final EmbeddedPostgres postgres;
+    private final ConfigurableApplicationContext app;
+    private final URI baseUri;
+
+    private EmbeddedStack(EmbeddedPostgres postgres, ConfigurableApplicationContext app, URI baseUri) {
+        this.postgres = postgres;
+        this.app = app;
+        this.baseUri = baseUri;
+    }
+
+    static EmbeddedStack start(LoadTestOptions options) throws Exception {
+        EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+        try {
+            String jdbcUrl = postgres.getJdbcUrl(USER, "postgres");
+
+            // Schema first, so the users exist before the app loads its in-memory indexes
+            Flyway.configure()
+                    .dataSource(postgres.getPostgresDatabase())
+                    .locations("classpath:db/migration")
+                    .load()
+                    .migrate();
+            SyntheticUsers.seed(postgres.getPostgresDatabase(), options.advisers(), options.students());
+
+            // Command line arguments, so they win over application.properties
+            List<String> arguments = List.of(
+                    "--SPRING_DATASOURCE_URL=" + jdbcUrl,
+                    "--SPRING_DATASOURCE_USERNAME=" + USER,
+                    "--SPRING_DATASOURCE_PASSWORD=",
+                    "--GOOGLE_CLIENT_ID=load-test",
+                    "--GOOGLE_CLIENT_SECRET=load-test",
+                    "--JWT_SECRET=load-test-secret-that-is-long-enough-for-hs256-signing",
+                    "--SUPABASE_URL=http://localhost:9",
+                    "--SUPABASE_ANON_KEY=load-test",
+                    "--LOG_LEVEL=WARN",
+                    "--SECURITY_LOG_LEVEL=WARN",
+                    "--server.port=0",
+                    "--app.google.certs-url=http://localhost:9/certs",
+                    "--app.auth.rate-limit.ip.capacity=" + Integer.MAX_VALUE,
+                    "--app.auth.rate-limit.ip.per-minute=" + Integer.MAX_VALUE);
+
+            ConfigurableApplicationContext app = new SpringApplicationBuilder(ThesisConsultationApplication.class)
+                    .bannerMode(Banner.Mode.OFF)
+                    .logStartupInfo(false)
+                    .run(arguments.toArray(String[]::new));
+            int port = ((WebServerApplicationContext) app).getWebServer().getPort();
+            return new EmbeddedStack(postgres, app, URI.create("http://localhost:" + port));
+        } catch (Exception e) {
+            postgres.close();
+            throw e;
+        }
+    }
+
+    URI baseUri() {
+        return baseUri;
+    }
+
+    DataSource dataSource() {
+        return postgres.getPostgresDatabase();
+    }
+
+    @Override
+    public void close() throws Exception {
+        try {
+            app.close();
+        } finally {
+            postgres.close();
+        }
+    }
+}
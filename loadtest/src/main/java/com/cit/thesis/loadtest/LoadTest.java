@@ -0,0 +1,35 @@
+package com.cit.thesis.loadtest;
+
+/**
+ * Booking-rush load test: starts PostgreSQL and the backend in-process,
+ * runs one scenario profile against it and prints the report.
+ *
+ * Exits with 1 if any slot ended up booked twice or out of step with its
+ * consultations, with 2 on bad arguments.
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options;
+        try {
+            options = LoadTestOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(2);
+            return;
+        }
+
+        boolean passed;
+        try (EmbeddedStack stack = EmbeddedStack.start(options)) {
+            System.out.printf("Backend on %s, running %s%n", stack.baseUri(), options.profile().label());
+            RunResult result = new Scenarios(options, stack.baseUri()).run();
+            Report.DatabaseChecks checks = Report.DatabaseChecks.run(stack.dataSource());
+            Report.print(System.out, options, result, checks);
+            passed = Report.passed(result, checks);
+        }
+        System.exit(passed ? 0 : 1);
+    }
+}
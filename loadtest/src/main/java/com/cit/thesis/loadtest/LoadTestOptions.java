@@ -0,0 +1,53 @@
+package com.cit.thesis.loadtest;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command line options, given as {@code --name=value}:
+ *
+ * <pre>
+ * --profile=rush|steady|approval-wave   scenario (default rush)
+ * --students=N --advisers=N             synthetic users (profile defaults)
+ * --duration=PT2M                       upper bound of the measured phase
+ * --poll=PT1S                           interval between polls of a list
+ * --hot-slots=20                        students pick among the first N open slots
+ * --seed=42                             random seed for slot choice and think times
+ * </pre>
+ */
+record LoadTestOptions(Profile profile, int students, int advisers, Duration duration, Duration poll,
+        int hotSlots, long seed) {
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            int split = arg.indexOf('=');
+            values.put(arg.substring(2, split), arg.substring(split + 1));
+        }
+
+        Profile profile = Profile.parse(values.getOrDefault("profile", "rush"));
+        LoadTestOptions options = new LoadTestOptions(
+                profile,
+                Integer.parseInt(values.getOrDefault("students", Integer.toString(profile.students))),
+                Integer.parseInt(values.getOrDefault("advisers", Integer.toString(profile.advisers))),
+                Duration.parse(values.getOrDefault("duration", profile.duration.toString())),
+                Duration.parse(values.getOrDefault("poll", "PT1S")),
+                Integer.parseInt(values.getOrDefault("hot-slots", "20")),
+                Long.parseLong(values.getOrDefault("seed", "42")));
+
+        values.keySet().removeAll(List.of("profile", "students", "advisers", "duration", "poll",
+                "hot-slots", "seed"));
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options: " + values.keySet());
+        }
+        if (options.students < 1 || options.advisers < 1 || options.hotSlots < 1) {
+            throw new IllegalArgumentException("students, advisers and hot-slots must be at least 1");
+        }
+        return options;
+    }
+}
@@ -0,0 +1,47 @@
+package com.cit.thesis.loadtest;
+
+import java.time.Duration;
+
+/**
+ * Scenario profiles with their default sizes. Every default can be
+ * overridden on the command line; see {@link LoadTestOptions}.
+ */
+enum Profile {
+
+    /**
+     * Every student is signed in and polling when the advisers publish a
+     * week of slots at once; all of them race for the earliest slots.
+     */
+    RUSH(1000, 10, Duration.ofMinutes(2)),
+
+    /**
+     * Slots are published up front and students arrive at an even rate
+     * over the first half of the run, browse, book once and keep checking
+     * their upcoming list.
+     */
+    STEADY(300, 10, Duration.ofMinutes(2)),
+
+    /**
+     * After an untimed booking phase, every adviser works through the
+     * pending queue at once while students poll their upcoming list.
+     */
+    APPROVAL_WAVE(400, 10, Duration.ofMinutes(2));
+
+    final int students;
+    final int advisers;
+    final Duration duration;
+
+    Profile(int students, int advisers, Duration duration) {
+        this.students = students;
+        this.advisers = advisers;
+        this.duration = duration;
+    }
+
+    static Profile parse(String value) {
+        return valueOf(value.trim().toUpperCase().replace('-', '_'));
+    }
+
+    String label() {
+        return name().toLowerCase().replace('_', '-');
+    }
+}
@@ -0,0 +1,99 @@
+package com.cit.thesis.loadtest;
+
+import javax.sql.DataSource;
+import java.io.PrintStream;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prints the per-operation table and the booking checks. The database is
+ * checked independently of what the API answered: a slot with two live
+ * consultations, or an is_booked flag that disagrees with them, is a bug
+ * whatever the responses said.
+ */
+final class Report {
+
+    // Operations in flow order; anything else follows
+    private static final List<String> ORDER = List.of("login", "publish", "available", "book", "upcoming",
+            "pending", "approve", "reject");
+
+    private static final String LIVE = "('PENDING', 'APPROVED', 'COMPLETED')";
+
+    record DatabaseChecks(long doubleBookedSlots, long slotsOutOfStep, long pendingLeft) {
+
+        static DatabaseChecks run(DataSource dataSource) throws SQLException {
+            try (Connection connection = dataSource.getConnection();
+                    Statement statement = connection.createStatement()) {
+                return new DatabaseChecks(
+                        count(statement, "SELECT COUNT(*) FROM (SELECT schedule_id FROM consultations WHERE status IN "
+                                + LIVE + " GROUP BY schedule_id HAVING COUNT(*) > 1) d"),
+                        count(statement, "SELECT COUNT(*) FROM schedules s WHERE s.is_booked <> EXISTS "
+                                + "(SELECT 1 FROM consultations c WHERE c.schedule_id = s.id AND c.status IN "
+                                + LIVE + ")"),
+                        count(statement, "SELECT COUNT(*) FROM consultations WHERE status = 'PENDING'"));
+            }
+        }
+
+        private static long count(Statement statement, String sql) throws SQLException {
+            try (ResultSet rows = statement.executeQuery(sql)) {
+                rows.next();
+                return rows.getLong(1);
+            }
+        }
+    }
+
+    private Report() {
+    }
+
+    static void print(PrintStream out, LoadTestOptions options, RunResult result, DatabaseChecks checks) {
+        double seconds = Math.max(result.elapsed().toNanos(), 1) / 1e9;
+
+        out.printf("%n== %s: %d students, %d advisers, %d slots published, %.1f s ==%n",
+                options.profile().label(), options.students(), options.advisers(),
+                result.publishedSlots.get(), seconds);
+        out.printf("%-10s %9s %9s %9s %8s %8s %8s %9s %9s %9s %9s%n",
+                "operation", "requests", "ok", "304", "409", "429", "errors", "p50 ms", "p95 ms", "p99 ms", "max ms");
+
+        Map<String, Stats.Operation> operations = result.stats.operations();
+        operations.keySet().stream()
+                .sorted((a, b) -> Integer.compare(rank(a), rank(b)))
+                .forEach(name -> {
+                    Stats.Operation operation = operations.get(name);
+                    out.printf("%-10s %9d %9d %9d %8d %8d %8d %9.1f %9.1f %9.1f %9.1f%n",
+                            name, operation.count(),
+                            operation.count(Stats.Outcome.OK),
+                            operation.count(Stats.Outcome.NOT_MODIFIED),
+                            operation.count(Stats.Outcome.CONFLICT),
+                            operation.count(Stats.Outcome.THROTTLED),
+                            operation.count(Stats.Outcome.ERROR),
+                            operation.percentileMillis(50),
+                            operation.percentileMillis(95),
+                            operation.percentileMillis(99),
+                            operation.maxMillis());
+                });
+
+        out.printf("%nthroughput: %.1f requests/s, %d errors%n",
+                result.stats.total() / seconds, result.stats.total(Stats.Outcome.ERROR));
+        out.printf("students:   %d booked, %d found no slot left, %d unfinished, %d could not sign in%n",
+                result.booked.sum(), result.noSlotLeft.sum(), result.unfinished.sum(), result.loginFailed.sum());
+        if (options.profile() == Profile.APPROVAL_WAVE) {
+            out.printf("advisers:   %d approved, %d rejected, %d still pending%n",
+                    result.approved.sum(), result.rejected.sum(), checks.pendingLeft());
+        }
+        out.printf("double bookings: %d confirmed by the API, %d in the database; slots out of step: %d%n",
+                result.doubleBookings(), checks.doubleBookedSlots(), checks.slotsOutOfStep());
+    }
+
+    static boolean passed(RunResult result, DatabaseChecks checks) {
+        return result.doubleBookings() == 0 && checks.doubleBookedSlots() == 0 && checks.slotsOutOfStep() == 0;
+    }
+
+    private static int rank(String operation) {
+        int index = ORDER.indexOf(operation);
+        return index >= 0 ? index : ORDER.size();
+    }
+}
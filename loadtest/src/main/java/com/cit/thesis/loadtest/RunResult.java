@@ -0,0 +1,47 @@
+package com.cit.thesis.loadtest;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * What one scenario run produced: request stats for the measured phase,
+ * how each student's attempt to book ended, and every booking the API
+ * confirmed, so a slot confirmed to two students shows up.
+ */
+final class RunResult {
+
+    final Stats stats = new Stats();
+    final LongAdder booked = new LongAdder();
+    // Every slot was taken before the student got one
+    final LongAdder noSlotLeft = new LongAdder();
+    // Still trying when the run ended
+    final LongAdder unfinished = new LongAdder();
+    final LongAdder loginFailed = new LongAdder();
+    final AtomicInteger publishedSlots = new AtomicInteger();
+    final LongAdder approved = new LongAdder();
+    final LongAdder rejected = new LongAdder();
+
+    private final Map<Long, AtomicInteger> confirmations = new ConcurrentHashMap<>();
+    private volatile long elapsedNanos;
+
+    void bookingConfirmed(long scheduleId) {
+        booked.increment();
+        confirmations.computeIfAbsent(scheduleId, id -> new AtomicInteger()).incrementAndGet();
+    }
+
+    // Slots the API confirmed to more than one student
+    long doubleBookings() {
+        return confirmations.values().stream().filter(count -> count.get() > 1).count();
+    }
+
+    void finished(long startNanos) {
+        elapsedNanos = System.nanoTime() - startNanos;
+    }
+
+    Duration elapsed() {
+        return Duration.ofNanos(elapsedNanos);
+    }
+}
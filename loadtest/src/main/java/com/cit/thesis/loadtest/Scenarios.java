@@ -0,0 +1,290 @@
+package com.cit.thesis.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+/**
+ * The three profiles. Each synthetic user runs on its own virtual thread
+ * and behaves like one browser tab: it waits for responses, polls at the
+ * configured interval and never has more than one request in flight.
+ */
+final class Scenarios {
+
+    // Every fourth pending request is rejected in the approval wave
+    private static final int REJECT_EVERY = 4;
+
+    private final LoadTestOptions options;
+    private final HttpClient http;
+    private final URI baseUri;
+    private final ObjectMapper json = new ObjectMapper();
+
+    Scenarios(LoadTestOptions options, URI baseUri) {
+        this.options = options;
+        this.baseUri = baseUri;
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    RunResult run() throws InterruptedException {
+        return switch (options.profile()) {
+            case RUSH -> rush();
+            case STEADY -> steady();
+            case APPROVAL_WAVE -> approvalWave();
+        };
+    }
+
+    private RunResult rush() throws InterruptedException {
+        RunResult result = new RunResult();
+        List<ApiClient> advisers = signInAdvisers(result.stats);
+
+        long start = System.nanoTime();
+        long deadline = start + options.duration().toNanos();
+        CountDownLatch signedIn = new CountDownLatch(options.students());
+        AtomicBoolean published = new AtomicBoolean();
+
+        try (ExecutorService users = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < options.students(); i++) {
+                int student = i;
+                users.submit(() -> {
+                    ApiClient client = client(result.stats);
+                    boolean ok = signIn(client, SyntheticUsers.studentEmail(student), result);
+                    signedIn.countDown();
+                    if (ok) {
+                        bookOne(client, new Random(options.seed() + student), deadline, published::get, result);
+                    }
+                    return null;
+                });
+            }
+
+            // Publish once everyone is polling, all advisers at the same moment
+            signedIn.await(options.duration().toNanos() / 2, TimeUnit.NANOSECONDS);
+            publishAll(users, advisers, result);
+            published.set(true);
+        }
+        result.finished(start);
+        return result;
+    }
+
+    private RunResult steady() throws InterruptedException {
+        RunResult result = new RunResult();
+        List<ApiClient> advisers = signInAdvisers(result.stats);
+        try (ExecutorService setup = Executors.newVirtualThreadPerTaskExecutor()) {
+            publishAll(setup, advisers, result);
+        }
+
+        long start = System.nanoTime();
+        long deadline = start + options.duration().toNanos();
+        // Arrivals end halfway, so the last student still has time to browse and book
+        long arrivalGap = options.duration().toNanos() / 2 / options.students();
+
+        try (ExecutorService users = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < options.students(); i++) {
+                int student = i;
+                long arrival = start + student * arrivalGap;
+                users.submit(() -> {
+                    sleepUntil(arrival);
+                    Random random = new Random(options.seed() + student);
+                    ApiClient client = client(result.stats);
+                    if (!signIn(client, SyntheticUsers.studentEmail(student), result)) {
+                        return null;
+                    }
+
+                    // Browse a little before picking
+                    int looks = 1 + random.nextInt(3);
+                    for (int look = 0; look < looks && System.nanoTime() < deadline; look++) {
+                        client.available();
+                        Thread.sleep(Duration.ofMillis(1000 + random.nextInt(2000)));
+                    }
+                    if (bookOne(client, random, deadline, () -> true, result)) {
+                        while (System.nanoTime() < deadline) {
+                            client.upcoming();
+                            Thread.sleep(options.poll());
+                        }
+                    }
+                    return null;
+                });
+            }
+        }
+        result.finished(start);
+        return result;
+    }
+
+    private RunResult approvalWave() throws InterruptedException {
+        // Setup, not reported: publish and have every student book one slot
+        RunResult setup = new RunResult();
+        List<ApiClient> advisers = signInAdvisers(setup.stats);
+        List<ApiClient> students = new ArrayList<>();
+        long setupDeadline = System.nanoTime() + options.duration().toNanos();
+        try (ExecutorService users = Executors.newVirtualThreadPerTaskExecutor()) {
+            publishAll(users, advisers, setup);
+            for (int i = 0; i < options.students(); i++) {
+                int student = i;
+                ApiClient client = client(setup.stats);
+                students.add(client);
+                users.submit(() -> {
+                    if (signIn(client, SyntheticUsers.studentEmail(student), setup)) {
+                        bookOne(client, new Random(options.seed() + student), setupDeadline, () -> true, setup);
+                    }
+                    return null;
+                });
+            }
+        }
+
+        RunResult result = new RunResult();
+        result.booked.add(setup.booked.sum());
+        result.noSlotLeft.add(setup.noSlotLeft.sum());
+        result.unfinished.add(setup.unfinished.sum());
+        result.loginFailed.add(setup.loginFailed.sum());
+        result.publishedSlots.set(setup.publishedSlots.get());
+        advisers.forEach(adviser -> adviser.recordInto(result.stats));
+        students.forEach(student -> student.recordInto(result.stats));
+
+        long start = System.nanoTime();
+        long deadline = start + options.duration().toNanos();
+        AtomicBoolean queuesEmpty = new AtomicBoolean();
+
+        try (ExecutorService users = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (ApiClient student : students) {
+                users.submit(() -> {
+                    while (!queuesEmpty.get() && System.nanoTime() < deadline) {
+                        student.upcoming();
+                        Thread.sleep(options.poll());
+                    }
+                    return null;
+                });
+            }
+
+            CountDownLatch done = new CountDownLatch(advisers.size());
+            for (ApiClient adviser : advisers) {
+                users.submit(() -> {
+                    try {
+                        workThroughQueue(adviser, deadline, result);
+                    } finally {
+                        done.countDown();
+                    }
+                    return null;
+                });
+            }
+            done.await();
+            queuesEmpty.set(true);
+        }
+        result.finished(start);
+        return result;
+    }
+
+    private void workThroughQueue(ApiClient adviser, long deadline, RunResult result) {
+        int handled = 0;
+        boolean progress = true;
+        // A pass where nothing could be decided would only repeat itself
+        while (progress && System.nanoTime() < deadline) {
+            progress = false;
+            for (long id : adviser.pending()) {
+                if (++handled % REJECT_EVERY == 0) {
+                    if (adviser.reject(id)) {
+                        result.rejected.increment();
+                        progress = true;
+                    }
+                } else if (adviser.approve(id)) {
+                    result.approved.increment();
+                    progress = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Polls and books until one booking is confirmed. Returns false if the
+     * slots ran out (once {@code allPublished} holds) or the run ended.
+     */
+    private boolean bookOne(ApiClient client, Random random, long deadline, BooleanSupplier allPublished,
+            RunResult result) throws InterruptedException {
+        while (System.nanoTime() < deadline) {
+            List<ApiClient.Slot> open = client.available();
+            if (open.isEmpty()) {
+                if (allPublished.getAsBoolean()) {
+                    result.noSlotLeft.increment();
+                    return false;
+                }
+                Thread.sleep(options.poll());
+                continue;
+            }
+
+            // Everyone wants the earliest slots
+            ApiClient.Slot slot = open.get(random.nextInt(Math.min(open.size(), options.hotSlots())));
+            int status = client.book(slot.id());
+            if (status == 200) {
+                result.bookingConfirmed(slot.id());
+                return true;
+            }
+            // 409: taken first, look again straight away; anything else: back off
+            if (status != 409) {
+                Thread.sleep(options.poll());
+            }
+        }
+        result.unfinished.increment();
+        return false;
+    }
+
+    private List<ApiClient> signInAdvisers(Stats stats) throws InterruptedException {
+        List<ApiClient> advisers = new ArrayList<>();
+        for (int i = 0; i < options.advisers(); i++) {
+            ApiClient adviser = client(stats);
+            if (!adviser.login(SyntheticUsers.adviserEmail(i), SyntheticUsers.PASSWORD)) {
+                throw new IllegalStateException("Adviser " + i + " could not sign in");
+            }
+            advisers.add(adviser);
+        }
+        return advisers;
+    }
+
+    // Every adviser publishes the coming week at the same moment
+    private void publishAll(ExecutorService executor, List<ApiClient> advisers, RunResult result)
+            throws InterruptedException {
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        CountDownLatch done = new CountDownLatch(advisers.size());
+        for (ApiClient adviser : advisers) {
+            executor.submit(() -> {
+                try {
+                    result.publishedSlots.addAndGet(adviser.publishWeek(tomorrow));
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+    }
+
+    private boolean signIn(ApiClient client, String email, RunResult result) throws InterruptedException {
+        if (client.login(email, SyntheticUsers.PASSWORD)) {
+            return true;
+        }
+        result.loginFailed.increment();
+        return false;
+    }
+
+    private ApiClient client(Stats stats) {
+        return new ApiClient(http, baseUri, json, stats);
+    }
+
+    private static void sleepUntil(long nanoTime) throws InterruptedException {
+        long wait = nanoTime - System.nanoTime();
+        if (wait > 0) {
+            Thread.sleep(Duration.ofNanos(wait));
+        }
+    }
+}
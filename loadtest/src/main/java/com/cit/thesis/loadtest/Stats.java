@@ -0,0 +1,79 @@
+package com.cit.thesis.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency and outcome counts per operation (login, available, book, ...).
+ * Recording is lock-free; many virtual users record at once.
+ */
+final class Stats {
+
+    enum Outcome {
+        OK,
+        // 304 to a conditional poll
+        NOT_MODIFIED,
+        // 409, e.g. a slot taken by another student
+        CONFLICT,
+        // 429 from the login limiter or the hashing pool
+        THROTTLED,
+        // Any other status, or no response at all
+        ERROR
+    }
+
+    private final Map<String, Operation> operations = new ConcurrentHashMap<>();
+
+    void record(String operation, Outcome outcome, long nanos) {
+        operations.computeIfAbsent(operation, name -> new Operation()).record(outcome, nanos);
+    }
+
+    Map<String, Operation> operations() {
+        return operations;
+    }
+
+    long total() {
+        return operations.values().stream().mapToLong(Operation::count).sum();
+    }
+
+    long total(Outcome outcome) {
+        return operations.values().stream().mapToLong(operation -> operation.count(outcome)).sum();
+    }
+
+    static final class Operation {
+
+        // Nanoseconds, three significant digits, resized as needed
+        private final Histogram latency = new ConcurrentHistogram(3);
+        private final LongAdder[] outcomes = new LongAdder[Outcome.values().length];
+
+        Operation() {
+            for (int i = 0; i < outcomes.length; i++) {
+                outcomes[i] = new LongAdder();
+            }
+        }
+
+        void record(Outcome outcome, long nanos) {
+            latency.recordValue(Math.max(1, nanos));
+            outcomes[outcome.ordinal()].increment();
+        }
+
+        long count() {
+            return latency.getTotalCount();
+        }
+
+        long count(Outcome outcome) {
+            return outcomes[outcome.ordinal()].sum();
+        }
+
+        double percentileMillis(double percentile) {
+            return latency.getValueAtPercentile(percentile) / 1_000_000.0;
+        }
+
+        double maxMillis() {
+            return latency.getMaxValue() / 1_000_000.0;
+        }
+    }
+}
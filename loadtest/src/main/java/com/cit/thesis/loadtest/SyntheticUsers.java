@@ -0,0 +1,74 @@
+package com.cit.thesis.loadtest;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Seeds approved advisers and complete student profiles straight into the
+ * database before the app starts, so the run does not begin with a few
+ * thousand registrations. All accounts share one password and hash.
+ */
+final class SyntheticUsers {
+
+    static final String PASSWORD = "load-test-password";
+
+    private static final String INSERT = """
+            INSERT INTO users (email, name, password_hash, role, student_id, faculty_id, team_code, department,
+                               auth_provider, is_profile_complete, email_verified, active, account_status,
+                               created_at, approved_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, 'email', TRUE, TRUE, TRUE, 'ACTIVE', ?, ?)
+            """;
+
+    private SyntheticUsers() {
+    }
+
+    static String adviserEmail(int index) {
+        return "adviser" + index + "@loadtest.cit.edu";
+    }
+
+    static String studentEmail(int index) {
+        return "student" + index + "@loadtest.cit.edu";
+    }
+
+    static void seed(DataSource dataSource, int advisers, int students) throws SQLException {
+        String hash = new BCryptPasswordEncoder().encode(PASSWORD);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        try (Connection connection = dataSource.getConnection();
+                PreparedStatement insert = connection.prepareStatement(INSERT)) {
+            connection.setAutoCommit(false);
+            for (int i = 0; i < advisers; i++) {
+                add(insert, adviserEmail(i), "Adviser " + i, hash, "FACULTY_ADVISER",
+                        null, "LT-F" + i, null, "IT Department", now);
+            }
+            for (int i = 0; i < students; i++) {
+                add(insert, studentEmail(i), "Student " + i, hash, "STUDENT_REP",
+                        "LT-S" + i, null, String.format("TEAM-%02d", i % 100), null, now);
+            }
+            insert.executeBatch();
+            connection.commit();
+        }
+    }
+
+    private static void add(PreparedStatement insert, String email, String name, String hash, String role,
+            String studentId, String facultyId, String teamCode, String department, Timestamp now)
+            throws SQLException {
+        insert.setString(1, email);
+        insert.setString(2, name);
+        insert.setString(3, hash);
+        insert.setString(4, role);
+        insert.setString(5, studentId);
+        insert.setString(6, facultyId);
+        insert.setString(7, teamCode);
+        insert.setString(8, department);
+        insert.setTimestamp(9, now);
+        insert.setTimestamp(10, "FACULTY_ADVISER".equals(role) ? now : null);
+        insert.addBatch();
+    }
+}
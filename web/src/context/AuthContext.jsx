@@ -1,5 +1,8 @@
 import { createContext, useContext, useEffect, useState } from "react";
-import { loginWithGoogle as googleLogin } from "../services/authService";
+import {
+  loginWithGoogle as googleLogin,
+  logout as endSession,
+} from "../services/authService";
 
 const AuthContext = createContext(null);
 
@@ -18,6 +21,7 @@ export const AuthProvider = ({ children }) => {
         console.error("❌ Failed to parse saved user:", e);
         localStorage.removeItem("user");
         localStorage.removeItem("token");
+        localStorage.removeItem("refreshToken");
       }
     }
     setLoading(false);
@@ -34,6 +38,10 @@ export const AuthProvider = ({ children }) => {
       }
 
       localStorage.setItem("token", response.token);
+
+      if (response.refreshToken) {
+        localStorage.setItem("refreshToken", response.refreshToken);
+      }
       localStorage.setItem("user", JSON.stringify(response.user));
       setUser(response.user);
 
@@ -45,7 +53,8 @@ export const AuthProvider = ({ children }) => {
   };
 
   const logout = () => {
-    localStorage.removeItem("token");
+    // Storage is cleared by endSession once the server has been told
+    endSession();
     localStorage.removeItem("user");
     setUser(null);
   };
@@ -64,6 +64,7 @@ const CompleteProfilePage = () => {
 
       localStorage.setItem("user", JSON.stringify(updatedUser));
       localStorage.setItem("token", response.token);
+      localStorage.setItem("refreshToken", response.refreshToken);
       updateUser(updatedUser);
 
       await new Promise((resolve) => setTimeout(resolve, 300));
@@ -67,6 +67,7 @@ const LoginPage = () => {
 
       // Save to localStorage
       localStorage.setItem("token", response.token);
+      localStorage.setItem("refreshToken", response.refreshToken);
       localStorage.setItem("user", JSON.stringify(response.user));
 
       // Update context
@@ -84,6 +85,9 @@ const LoginPage = () => {
         );
       } else if (msg?.includes("Invalid credentials")) {
         setError("Incorrect email or password.");
+      } else if (err.response?.status === 429) {
+        // Rate limited; the message says how long to wait
+        setError(msg);
       } else {
         setError("Login failed. Please try again.");
       }
@@ -106,6 +110,7 @@ const LoginPage = () => {
 
       // Save to localStorage
       localStorage.setItem("token", response.token);
+      localStorage.setItem("refreshToken", response.refreshToken);
       localStorage.setItem("user", JSON.stringify(response.user));
 
       // Update context
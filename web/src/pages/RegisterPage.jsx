@@ -77,7 +77,9 @@ const RegisterPage = () => {
     } catch (err) {
       console.error("Registration error:", err);
       setError(
-        err.response?.data?.message || "Registration failed. Please try again."
+        err.response?.status === 429
+          ? err.response.data
+          : err.response?.data?.message || "Registration failed. Please try again."
       );
     } finally {
       setLoading(false);
@@ -94,6 +96,7 @@ const RegisterPage = () => {
 
       // Save to localStorage
       localStorage.setItem("token", response.token);
+      localStorage.setItem("refreshToken", response.refreshToken);
       localStorage.setItem("user", JSON.stringify(response.user));
 
       // Update context
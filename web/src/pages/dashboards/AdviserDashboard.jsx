@@ -17,7 +17,7 @@ import Loader from "../../components/common/Loader";
 import { ProfessorIcon } from "../../components/common/icons/HeaderIcons";
 import "../../styles/dashboard-common.css";
 import Alert from "../../components/common/Alert";
-import { getPendingConsultations } from "../../services/consultationService";
+import { getAdviserDashboard } from "../../services/adviserService";
 import plusIcon from "../../assets/plus-circle-svgrepo-com.svg";
 import {
   PlusIcon,
@@ -56,8 +56,8 @@ const AdviserDashboard = () => {
 
   const fetchPendingCount = useCallback(async () => {
     try {
-      const data = await getPendingConsultations();
-      setPendingCount(data.length);
+      const data = await getAdviserDashboard();
+      setPendingCount(data.pendingCount);
     } catch (err) {
       console.error("❌ Failed to fetch pending consultations:", err);
     }
@@ -0,0 +1,7 @@
+import api from './api';
+
+// Pending count, today's/this week's consultations and open-slot figures in one request
+export const getAdviserDashboard = async (slots = 5) => {
+    const response = await api.get('/advisers/me/dashboard', { params: { slots } });
+    return response.data;
+};
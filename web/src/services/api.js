@@ -1,7 +1,9 @@
 import axios from 'axios';
 
+const baseURL = import.meta.env.VITE_API_URL || 'http://localhost:8080/api';
+
 const api = axios.create({
-    baseURL: import.meta.env.VITE_API_URL || 'http://localhost:8080/api',
+    baseURL,
     headers: {
         'Content-Type': 'application/json',
     },
@@ -21,16 +23,54 @@ api.interceptors.request.use(
     }
 );
 
+const clearSession = () => {
+    localStorage.removeItem('token');
+    localStorage.removeItem('refreshToken');
+    localStorage.removeItem('user');
+};
+
+// One refresh at a time: requests failing while it runs wait for the same result.
+// Plain axios, so a failed refresh does not come back through this interceptor.
+let refreshing = null;
+
+const refreshAccessToken = () => {
+    if (!refreshing) {
+        const refreshToken = localStorage.getItem('refreshToken');
+        refreshing = (refreshToken
+            ? axios.post(`${baseURL}/auth/refresh`, { refreshToken }, { withCredentials: true })
+            : Promise.reject(new Error('No refresh token')))
+            .then(({ data }) => {
+                localStorage.setItem('token', data.token);
+                localStorage.setItem('refreshToken', data.refreshToken);
+                localStorage.setItem('user', JSON.stringify(data.user));
+                return data.token;
+            })
+            .finally(() => {
+                refreshing = null;
+            });
+    }
+    return refreshing;
+};
+
 api.interceptors.response.use(
     (response) => response,
-    (error) => {
-        if (error.response?.status === 401) {
-            localStorage.removeItem('token');
-            localStorage.removeItem('user');
-            window.location.href = '/login';
+    async (error) => {
+        const request = error.config;
+        const isAuthCall = request?.url?.startsWith('/auth/');
+
+        if (error.response?.status === 401 && request && !request._retried && !isAuthCall) {
+            request._retried = true;
+            try {
+                const token = await refreshAccessToken();
+                request.headers.Authorization = `Bearer ${token}`;
+                return api(request);
+            } catch {
+                clearSession();
+                window.location.href = '/login';
+            }
         }
         return Promise.reject(error);
     }
 );
 
-export default api;
\ No newline at end of file
+export default api;
@@ -24,10 +24,18 @@ export const completeProfile = async (profileData) => {
     return response.data;
 };
 
-// Logout
-export const logout = () => {
-    localStorage.removeItem('token');
-    localStorage.removeItem('user');
+// Logout (revokes the access token and this session's refresh tokens on the server)
+export const logout = async () => {
+    const refreshToken = localStorage.getItem('refreshToken');
+    try {
+        await api.post('/auth/logout', { refreshToken });
+    } catch (error) {
+        console.error('Logout request failed:', error);
+    } finally {
+        localStorage.removeItem('token');
+        localStorage.removeItem('refreshToken');
+        localStorage.removeItem('user');
+    }
 };
 
 // Get current user